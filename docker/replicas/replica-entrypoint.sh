@@ -0,0 +1,11 @@
+#!/bin/bash
+# Clones the primary on first start and runs as a hot standby; -R writes standby.signal and
+# primary_conninfo, so the server starts in recovery and streams from the primary.
+set -euo pipefail
+
+if [ -z "$(ls -A "$PGDATA" 2>/dev/null)" ]; then
+    pg_basebackup --host=primary --username=replicator --pgdata="$PGDATA" -R -X stream --checkpoint=fast
+    chmod 0700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on
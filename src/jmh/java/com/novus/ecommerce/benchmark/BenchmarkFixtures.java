@@ -0,0 +1,103 @@
+package com.novus.ecommerce.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.novus.ecommerce.config.S3Config;
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.service.ProductService;
+import com.novus.ecommerce.service.S3Service;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-ins for the Spring context: services are wired by hand, repositories are proxies that
+ * echo {@code save} and reject everything else, and S3 presigning runs offline with static credentials.
+ */
+public final class BenchmarkFixtures {
+
+    static final String REGION = "eu-central-1";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Service methods log at info level on every call, which would otherwise dominate the measurements.
+     */
+    public static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + " stand-in";
+                    default -> throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+                });
+    }
+
+    static S3Service s3Service() {
+        S3Config config = new S3Config();
+        setField(config, "bucketName", "novus-benchmark");
+        setField(config, "region", REGION);
+        setField(config, "downloadExpirationMinutes", 60);
+        setField(config, "uploadExpirationMinutes", 15);
+
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.of(REGION))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create("benchmark-access-key", "benchmark-secret-key")))
+                .build();
+
+        return new S3Service(null, presigner, config);
+    }
+
+    static ProductService productService() {
+        return new ProductService(repository(com.novus.ecommerce.repository.ProductRepository.class),
+                null, s3Service(), event -> {
+        });
+    }
+
+    static Product product(long id, boolean withImage) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Benchmark product number " + id + " with a description of realistic length.")
+                .price(BigDecimal.valueOf(1000 + id % 9000, 2))
+                .stock(100)
+                .imageUrl(withImage ? "products/" + id + "/image.jpg" : null)
+                .category(Category.builder().id(id % 10).name("Category " + id % 10).build())
+                .build();
+    }
+
+    static List<Product> products(int count, boolean withImage) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(product(id, withImage));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,70 @@
+package com.novus.ecommerce.benchmark;
+
+import com.novus.ecommerce.entity.Cart;
+import com.novus.ecommerce.entity.Item;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.repository.CartRepository;
+import com.novus.ecommerce.service.CartService;
+import com.novus.ecommerce.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int cartSize;
+
+    private CartService cartService;
+    private Cart cart;
+    private Product existingProduct;
+    private Product newProduct;
+
+    @Setup(Level.Trial)
+    public void setupService() {
+        BenchmarkFixtures.quietLogging();
+        cartService = new CartService(BenchmarkFixtures.repository(CartRepository.class),
+                new ItemService(BenchmarkFixtures.productService()));
+        newProduct = BenchmarkFixtures.product(cartSize + 1L, false);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupCart() {
+        cart = Cart.builder().id(1L).build();
+        for (Product product : BenchmarkFixtures.products(cartSize, false)) {
+            cart.getItems().add(Item.builder()
+                    .product(product)
+                    .quantity(1)
+                    .price(product.getPrice())
+                    .cart(cart)
+                    .build());
+        }
+        existingProduct = BenchmarkFixtures.product(cartSize, false);
+    }
+
+    @TearDown(Level.Invocation)
+    public void dropNewLine() {
+        cart.getItems().removeIf(item -> item.getProduct() == newProduct);
+    }
+
+    /**
+     * Worst case for the existing-line lookup: the product is the last one added.
+     */
+    @Benchmark
+    public Cart addExistingProduct() {
+        cartService.addProductToCart(cart, existingProduct, 1);
+        return cart;
+    }
+
+    @Benchmark
+    public Cart addNewProduct() {
+        cartService.addProductToCart(cart, newProduct, 1);
+        return cart;
+    }
+}
@@ -0,0 +1,43 @@
+package com.novus.ecommerce.benchmark;
+
+import com.novus.ecommerce.entity.Item;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int lines;
+
+    private Set<Item> items;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+        items = new HashSet<>();
+        for (Product product : BenchmarkFixtures.products(lines, false)) {
+            items.add(Item.builder()
+                    .product(product)
+                    .quantity(3)
+                    .price(product.getPrice().multiply(BigDecimal.valueOf(3)))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal checkoutTotal() {
+        return OrderService.calculateTotal(items);
+    }
+}
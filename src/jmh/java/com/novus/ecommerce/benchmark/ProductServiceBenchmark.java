@@ -0,0 +1,39 @@
+package com.novus.ecommerce.benchmark;
+
+import com.novus.ecommerce.dto.entity.ProductDto;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code mapToDto} with and without an image key. Presigned URLs are not cached here since there is
+ * no Spring proxy, so the image variant measures the cache-miss cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"false", "true"})
+    private boolean withImage;
+
+    private ProductService productService;
+    private Product product;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+        productService = BenchmarkFixtures.productService();
+        product = BenchmarkFixtures.product(42, withImage);
+    }
+
+    @Benchmark
+    public ProductDto mapToDto() {
+        return productService.mapToDto(product);
+    }
+}
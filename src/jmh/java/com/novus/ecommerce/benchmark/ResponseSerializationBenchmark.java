@@ -0,0 +1,73 @@
+package com.novus.ecommerce.benchmark;
+
+import com.novus.ecommerce.dto.entity.ProductDto;
+import com.novus.ecommerce.dto.response.ProductFacets;
+import com.novus.ecommerce.dto.response.Response;
+import com.novus.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a product listing page as the controller returns it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private Response<List<ProductDto>> page;
+    private Response<List<ProductDto>> pageWithFacets;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+        mapper = new ObjectMapper();
+
+        ProductService productService = BenchmarkFixtures.productService();
+        List<ProductDto> products = BenchmarkFixtures.products(pageSize, true).stream()
+                .map(productService::mapToDto)
+                .toList();
+
+        page = pageOf(products).build();
+
+        ProductFacets facets = new ProductFacets(
+                Map.of("Category 1", 120L, "Category 2", 80L, "Category 3", 45L),
+                List.of(new ProductFacets.PriceBucket(BigDecimal.ZERO, BigDecimal.valueOf(25), 60),
+                        new ProductFacets.PriceBucket(BigDecimal.valueOf(25), BigDecimal.valueOf(100), 140),
+                        new ProductFacets.PriceBucket(BigDecimal.valueOf(100), null, 45)));
+        pageWithFacets = pageOf(products).facets(facets).build();
+    }
+
+    private Response.ResponseBuilder<List<ProductDto>> pageOf(List<ProductDto> products) {
+        return Response.<List<ProductDto>>builder()
+                .status(200)
+                .message("Products retrieved successfully")
+                .data(products)
+                .pageNumber(0)
+                .pageSize(pageSize)
+                .totalPage(50)
+                .totalData(50L * pageSize);
+    }
+
+    @Benchmark
+    public byte[] productPage() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] productPageWithFacets() {
+        return mapper.writeValueAsBytes(pageWithFacets);
+    }
+}
@@ -0,0 +1,76 @@
+package com.novus.ecommerce.security.jwt;
+
+import com.novus.ecommerce.benchmark.BenchmarkFixtures;
+import com.novus.ecommerce.cache.LocalCacheInvalidationBus;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtFilter}: cookie lookup, denylist check, verification
+ * (or a verified token cache hit) and populating the security context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean verifiedCacheEnabled;
+
+    // With no revoked token the filter skips hashing unless the verified cache needs the digest
+    @Param({"false", "true"})
+    private boolean denylistInUse;
+
+    private JwtFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        JwtUtils jwtUtils = new JwtUtils();
+        jwtUtils.init(Base64.getEncoder().encodeToString(key), TimeUnit.MINUTES.toMillis(15));
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(
+                new ConcurrentMapCacheManager(VerifiedTokenCache.CACHE_NAME), verifiedCacheEnabled);
+        AccessTokenDenylist denylist = new AccessTokenDenylist(new LocalCacheInvalidationBus(), jwtUtils, 100_000);
+        if (denylistInUse) {
+            denylist.revoke(jwtUtils.generateToken("revoked@novus.com", "ROLE_USER"));
+        }
+        filter = new JwtFilter(jwtUtils, verifiedTokenCache, denylist);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.setCookies(new Cookie("Access-Token", jwtUtils.generateToken("benchmark@novus.com", "ROLE_USER")));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws ServletException, IOException {
+        try {
+            filter.doFilterInternal(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.novus.ecommerce.security.jwt;
+
+import com.novus.ecommerce.benchmark.BenchmarkFixtures;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lives next to {@link JwtUtils} so it can be wired through the package-private {@code init} hook.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private String secret;
+    private JwtUtils jwtUtils;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.quietLogging();
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        secret = Base64.getEncoder().encodeToString(key);
+
+        jwtUtils = new JwtUtils();
+        jwtUtils.init(secret, TimeUnit.MINUTES.toMillis(15));
+
+        userDetails = User.withUsername("benchmark@novus.com").password("unused").roles("USER").build();
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyToken() {
+        return jwtUtils.verify(token);
+    }
+
+    /**
+     * What the filter did before {@link JwtUtils#verify}: validate, then extract the subject and the
+     * role, each call decoding the key and building a new parser.
+     */
+    @Benchmark
+    public void verifyTokenBaseline(Blackhole blackhole) {
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))).build().parse(token);
+        blackhole.consume(parseClaimsBaseline().getSubject());
+        blackhole.consume(parseClaimsBaseline().get("role"));
+    }
+
+    private Claims parseClaimsBaseline() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,330 @@
+package com.novus.ecommerce.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import static com.novus.ecommerce.loadtest.LoadTestSettings.*;
+
+/**
+ * Seeds a large, reproducible dataset through batched JDBC inserts. Expects the schema to exist
+ * (start the application once). Ids are assigned here in contiguous ranges above the current maximum,
+ * and each entity sequence is moved past them afterwards so Hibernate's pooled allocation does not collide.
+ * <p>
+ * Seeded users log in as {@code loadtest-user-<n>@novus.test} with the {@code seed.password} password,
+ * each with one address and an empty cart.
+ */
+public final class CatalogSeeder {
+
+    static final String EMAIL_FORMAT = "loadtest-user-%d@novus.test";
+    static final String DEFAULT_PASSWORD = "loadtest-password";
+
+    private static final String[] ORDER_STATUSES = {"Pending", "Shipped", "Delivered", "Cancelled"};
+
+    private final Connection connection;
+    private final Random random;
+    private final int batchSize;
+    private final Timestamp now = Timestamp.from(Instant.now());
+
+    private CatalogSeeder(Connection connection, Random random, int batchSize) {
+        this.connection = connection;
+        this.random = random;
+        this.batchSize = batchSize;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int categories = integer("seed.categories", 50);
+        int products = integer("seed.products", 1_000_000);
+        int users = integer("seed.users", 100_000);
+        long orderItems = number("seed.order-items", 10_000_000);
+        int itemsPerOrder = integer("seed.items-per-order", 5);
+        double imageRatio = decimal("seed.image-ratio", 0.2);
+        String password = string("seed.password", null, DEFAULT_PASSWORD);
+
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            CatalogSeeder seeder = new CatalogSeeder(connection, new Random(number("seed.random-seed", 42)),
+                    integer("seed.batch-size", 5_000));
+
+            long[] categoryIds = seeder.timed("categories", () -> seeder.seedCategories(categories));
+            SeededProducts seeded = new SeededProducts(products);
+            seeder.timed("products", () -> seeder.seedProducts(categoryIds, imageRatio, seeded));
+            long[] userIds = new long[users];
+            long[] addressIds = new long[users];
+            seeder.timed("users", () -> seeder.seedUsers(password, userIds, addressIds));
+            seeder.timed("orders", () -> seeder.seedOrders(orderItems, itemsPerOrder, seeded, userIds, addressIds));
+
+            System.out.println("Analyzing tables");
+            connection.setAutoCommit(true);
+            try (var statement = connection.createStatement()) {
+                statement.execute("ANALYZE categories, products, users, addresses, cart, orders, order_lines");
+            }
+        }
+    }
+
+    long[] seedCategories(int count) throws SQLException {
+        long[] ids = new long[count];
+        long nextId = nextId("categories");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO categories (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = nextId++;
+                insert.setLong(1, ids[i]);
+                insert.setString(2, CatalogVocabulary.category(i));
+                insert.setTimestamp(3, now);
+                insert.setTimestamp(4, now);
+                insert.addBatch();
+            }
+            flush(insert);
+        }
+        syncSequence("categories");
+        return ids;
+    }
+
+    Void seedProducts(long[] categoryIds, double imageRatio, SeededProducts products) throws SQLException {
+        long[] ids = products.ids;
+        long[] prices = products.prices;
+        long nextId = nextId("products");
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO products (id, name, description, price, stock, image_url, category_id, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""")) {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = nextId++;
+                prices[i] = 100 + random.nextInt(200_000);
+                insert.setLong(1, ids[i]);
+                products.names[i] = CatalogVocabulary.productName(random, ids[i]);
+                products.categories[i] = random.nextInt(categoryIds.length);
+                products.imageKeys[i] = random.nextDouble() < imageRatio ? "products/" + ids[i] + "/seed.jpg" : null;
+                insert.setString(2, products.names[i]);
+                insert.setString(3, CatalogVocabulary.description(random));
+                insert.setBigDecimal(4, BigDecimal.valueOf(prices[i], 2));
+                // Large enough that checkout traffic never runs a product out of stock
+                insert.setInt(5, 1_000_000);
+                insert.setString(6, products.imageKeys[i]);
+                insert.setLong(7, categoryIds[products.categories[i]]);
+                insert.setTimestamp(8, now);
+                insert.setTimestamp(9, now);
+                insert.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    flush(insert);
+                    progress("products", i + 1, ids.length);
+                }
+            }
+            flush(insert);
+        }
+        syncSequence("products");
+        return null;
+    }
+
+    Void seedUsers(String password, long[] userIds, long[] addressIds) throws SQLException {
+        long roleId;
+        try (var statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM roles WHERE role_name = 'ROLE_CUSTOMER'")) {
+            if (!rs.next()) {
+                throw new IllegalStateException("ROLE_CUSTOMER is missing, start the application once to run data.sql");
+            }
+            roleId = rs.getLong(1);
+        }
+
+        // Hashing once keeps seeding fast, every seeded user shares the same password
+        String passwordHash = new BCryptPasswordEncoder().encode(password);
+
+        long nextUserId = nextId("users");
+        long nextAddressId = nextId("addresses");
+        long nextCartId = nextId("cart");
+        try (PreparedStatement users = connection.prepareStatement("""
+                INSERT INTO users (id, username, email, password, role_id, enabled, created_on, updated_on)
+                VALUES (?, ?, ?, ?, ?, true, ?, ?)""");
+             PreparedStatement addresses = connection.prepareStatement("""
+                     INSERT INTO addresses (id, street, city, state, postal_code, country, user_id, is_default, created_on, updated_on)
+                     VALUES (?, ?, ?, ?, ?, ?, ?, true, ?, ?)""");
+             PreparedStatement carts = connection.prepareStatement("INSERT INTO cart (id, user_id) VALUES (?, ?)")) {
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = nextUserId++;
+                users.setLong(1, userIds[i]);
+                users.setString(2, "loadtest-user-" + (i + 1));
+                users.setString(3, EMAIL_FORMAT.formatted(i + 1));
+                users.setString(4, passwordHash);
+                users.setLong(5, roleId);
+                users.setTimestamp(6, now);
+                users.setTimestamp(7, now);
+                users.addBatch();
+
+                addressIds[i] = nextAddressId++;
+                addresses.setLong(1, addressIds[i]);
+                addresses.setString(2, (i + 1) + " Load Test Street");
+                addresses.setString(3, "Testville");
+                addresses.setString(4, "TS");
+                addresses.setString(5, String.format("%05d", i % 100_000));
+                addresses.setString(6, "Testland");
+                addresses.setLong(7, userIds[i]);
+                addresses.setTimestamp(8, now);
+                addresses.setTimestamp(9, now);
+                addresses.addBatch();
+
+                carts.setLong(1, nextCartId++);
+                carts.setLong(2, userIds[i]);
+                carts.addBatch();
+
+                if ((i + 1) % batchSize == 0 || i == userIds.length - 1) {
+                    users.executeBatch();
+                    addresses.executeBatch();
+                    flush(carts);
+                    progress("users", i + 1, userIds.length);
+                }
+            }
+        }
+        syncSequence("users");
+        syncSequence("addresses");
+        syncSequence("cart");
+        return null;
+    }
+
+    /**
+     * Orders with their line snapshots, written the way checkout writes them.
+     */
+    Void seedOrders(long orderItems, int itemsPerOrder, SeededProducts products,
+                    long[] userIds, long[] addressIds) throws SQLException {
+        long[] productIds = products.ids;
+        long[] productPrices = products.prices;
+        long orders = (orderItems + itemsPerOrder - 1) / itemsPerOrder;
+        int ordersPerBatch = Math.max(1, batchSize / itemsPerOrder);
+        long itemsLeft = orderItems;
+        Instant oldest = Instant.now().minus(Duration.ofDays(365));
+
+        long nextOrderId = nextId("orders");
+        long nextLineId = nextId("order_lines");
+        try (PreparedStatement orderInsert = connection.prepareStatement("""
+                INSERT INTO orders (id, user_id, shipping_address_id, total_price, status, created_at)
+                VALUES (?, ?, ?, ?, ?, ?)""");
+             PreparedStatement lineInsert = connection.prepareStatement("""
+                     INSERT INTO order_lines (id, order_id, product_id, product_name, category, image_key,
+                                              unit_price, quantity, price)
+                     VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""")) {
+            for (long done = 0; done < orders; ) {
+                int chunk = (int) Math.min(ordersPerBatch, orders - done);
+                int[][] lines = new int[chunk][];
+                int[][] quantities = new int[chunk][];
+                long[] orderIds = new long[chunk];
+
+                for (int o = 0; o < chunk; o++) {
+                    int lineCount = (int) Math.min(itemsPerOrder, itemsLeft);
+                    itemsLeft -= lineCount;
+                    lines[o] = new int[lineCount];
+                    quantities[o] = new int[lineCount];
+                    long total = 0;
+                    for (int l = 0; l < lineCount; l++) {
+                        lines[o][l] = random.nextInt(productIds.length);
+                        quantities[o][l] = 1 + random.nextInt(3);
+                        total += productPrices[lines[o][l]] * quantities[o][l];
+                    }
+                    int user = random.nextInt(userIds.length);
+                    orderIds[o] = nextOrderId++;
+                    orderInsert.setLong(1, orderIds[o]);
+                    orderInsert.setLong(2, userIds[user]);
+                    orderInsert.setLong(3, addressIds[user]);
+                    orderInsert.setBigDecimal(4, BigDecimal.valueOf(total, 2));
+                    orderInsert.setString(5, ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)]);
+                    orderInsert.setTimestamp(6, Timestamp.from(oldest.plus(random.nextInt(365 * 24 * 60), ChronoUnit.MINUTES)));
+                    orderInsert.addBatch();
+                }
+                orderInsert.executeBatch();
+
+                for (int o = 0; o < chunk; o++) {
+                    for (int l = 0; l < lines[o].length; l++) {
+                        int product = lines[o][l];
+                        lineInsert.setLong(1, nextLineId++);
+                        lineInsert.setLong(2, orderIds[o]);
+                        lineInsert.setLong(3, productIds[product]);
+                        lineInsert.setString(4, products.names[product]);
+                        lineInsert.setString(5, CatalogVocabulary.category(products.categories[product]));
+                        lineInsert.setString(6, products.imageKeys[product]);
+                        lineInsert.setBigDecimal(7, BigDecimal.valueOf(productPrices[product], 2));
+                        lineInsert.setInt(8, quantities[o][l]);
+                        lineInsert.setBigDecimal(9, BigDecimal.valueOf(productPrices[product] * quantities[o][l], 2));
+                        lineInsert.addBatch();
+                    }
+                }
+                flush(lineInsert);
+
+                done += chunk;
+                progress("orders", done, orders);
+            }
+        }
+        syncSequence("orders");
+        syncSequence("order_lines");
+        return null;
+    }
+
+    private void flush(PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    private long nextId(String table) throws SQLException {
+        try (var statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT coalesce(max(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Same rule as data.sql: only ever moves the sequence forward, to the highest id in the table.
+     */
+    private void syncSequence(String table) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("SELECT setval('%1$s_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM %1$s) m "
+                    .formatted(table) + "WHERE m.max_id > (SELECT last_value FROM %s_seq)".formatted(table));
+        }
+        connection.commit();
+    }
+
+    private void progress(String table, long done, long total) {
+        if (done % (batchSize * 20L) < batchSize || done == total) {
+            System.out.printf("  %s: %,d / %,d%n", table, done, total);
+        }
+    }
+
+    private <T> T timed(String name, SeedStep<T> step) throws SQLException {
+        System.out.printf("Seeding %s%n", name);
+        long start = System.nanoTime();
+        T result = step.run();
+        System.out.printf("Seeded %s in %,d ms%n", name, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return result;
+    }
+
+    /**
+     * What the order lines need to know about each seeded product, by position.
+     */
+    private static final class SeededProducts {
+
+        private final long[] ids;
+        private final long[] prices;
+        private final String[] names;
+        private final int[] categories;
+        private final String[] imageKeys;
+
+        private SeededProducts(int count) {
+            ids = new long[count];
+            prices = new long[count];
+            names = new String[count];
+            categories = new int[count];
+            imageKeys = new String[count];
+        }
+    }
+
+    @FunctionalInterface
+    private interface SeedStep<T> {
+        T run() throws SQLException;
+    }
+}
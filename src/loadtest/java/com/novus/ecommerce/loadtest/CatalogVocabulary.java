@@ -0,0 +1,56 @@
+package com.novus.ecommerce.loadtest;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Word lists shared by the seeder and the load generator, so search and suggest traffic
+ * hits terms that actually exist in the seeded catalog.
+ */
+final class CatalogVocabulary {
+
+    static final List<String> CATEGORIES = List.of(
+            "Electronics", "Books", "Clothing", "Home", "Garden", "Toys", "Sports", "Beauty", "Automotive",
+            "Grocery", "Music", "Office", "Pets", "Health", "Jewelry", "Tools", "Outdoors", "Baby", "Shoes", "Games");
+
+    static final List<String> ADJECTIVES = List.of(
+            "Wireless", "Portable", "Classic", "Premium", "Compact", "Smart", "Organic", "Vintage", "Ultra", "Eco",
+            "Deluxe", "Rugged", "Slim", "Heavy", "Modern", "Foldable", "Digital", "Handmade", "Waterproof", "Pro");
+
+    static final List<String> NOUNS = List.of(
+            "Headphones", "Keyboard", "Backpack", "Lamp", "Blender", "Jacket", "Speaker", "Notebook", "Kettle",
+            "Monitor", "Sneakers", "Watch", "Chair", "Camera", "Mug", "Charger", "Tent", "Drill", "Bottle", "Puzzle");
+
+    private CatalogVocabulary() {
+    }
+
+    static String category(int index) {
+        String base = CATEGORIES.get(index % CATEGORIES.size());
+        int round = index / CATEGORIES.size();
+        return round == 0 ? base : base + " " + (round + 1);
+    }
+
+    static String productName(RandomGenerator random, long id) {
+        return pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + id;
+    }
+
+    static String description(RandomGenerator random) {
+        return "A " + pick(random, ADJECTIVES).toLowerCase() + " " + pick(random, NOUNS).toLowerCase()
+                + " built for everyday use, pairs well with any " + pick(random, NOUNS).toLowerCase() + ".";
+    }
+
+    static String searchTerm(RandomGenerator random) {
+        return random.nextInt(3) == 0
+                ? pick(random, ADJECTIVES) + " " + pick(random, NOUNS)
+                : pick(random, random.nextBoolean() ? ADJECTIVES : NOUNS);
+    }
+
+    static String suggestPrefix(RandomGenerator random) {
+        String word = pick(random, random.nextBoolean() ? ADJECTIVES : NOUNS);
+        return word.substring(0, Math.min(word.length(), 2 + random.nextInt(3)));
+    }
+
+    static String pick(RandomGenerator random, List<String> words) {
+        return words.get(random.nextInt(words.size()));
+    }
+}
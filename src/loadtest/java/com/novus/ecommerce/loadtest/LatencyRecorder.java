@@ -0,0 +1,89 @@
+package com.novus.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps every sample per endpoint so percentiles are exact rather than bucketed.
+ * A ten minute run at a few thousand requests per second stays in the tens of megabytes.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        series.computeIfAbsent(endpoint, ignored -> new Series()).add(nanos, success);
+    }
+
+    List<Summary> summarize(double seconds) {
+        List<Summary> summaries = new ArrayList<>();
+        new ConcurrentSkipListMap<>(series).forEach((endpoint, s) -> summaries.add(s.summarize(endpoint, seconds)));
+        return summaries;
+    }
+
+    static void print(List<Summary> summaries) {
+        System.out.printf("%-34s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Summary s : summaries) {
+            System.out.printf("%-34s %,10d %,8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    s.endpoint(), s.requests(), s.errors(), s.throughput(), s.p50(), s.p99(), s.p999(), s.max());
+        }
+    }
+
+    static void writeCsv(List<Summary> summaries, Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms");
+        for (Summary s : summaries) {
+            lines.add("\"%s\",%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f".formatted(s.endpoint(), s.requests(), s.errors(),
+                    s.throughput(), s.p50(), s.p99(), s.p999(), s.max()));
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.write(path, lines);
+    }
+
+    record Summary(String endpoint, int requests, long errors, double throughput,
+                   double p50, double p99, double p999, double max) {
+    }
+
+    private static final class Series {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized Summary summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return new Summary(endpoint, size, errors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
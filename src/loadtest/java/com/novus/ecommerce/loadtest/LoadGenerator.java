@@ -0,0 +1,92 @@
+package com.novus.ecommerce.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.novus.ecommerce.loadtest.LoadTestSettings.*;
+
+/**
+ * Drives browse, search, suggest, product, cart and checkout traffic against a running instance
+ * and reports p50/p99/p999 latency and throughput per endpoint. Every virtual user runs on its own
+ * virtual thread, so {@code load.users} can go to several thousand concurrent connections.
+ * <p>
+ * Operations are scheduled at {@code load.rate} per second, spread over the users, and latency is
+ * measured from each operation's scheduled start. {@code load.rate=0} runs a closed loop instead,
+ * which under-reports tail latency and is flagged in the report.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = string("load.base-url", null, "http://localhost:8080");
+        int users = integer("load.users", 200);
+        double rate = decimal("load.rate", 1000);
+        Duration warmup = Duration.ofSeconds(number("load.warmup-seconds", 30));
+        Duration duration = Duration.ofSeconds(number("load.duration-seconds", 300));
+        TrafficMix mix = TrafficMix.parse(string("load.mix", null,
+                "browse:40,search:20,suggest:10,product:20,cart:7,checkout:3"));
+        String password = string("seed.password", null, CatalogSeeder.DEFAULT_PASSWORD);
+        Path report = Path.of(string("load.report", null, "target/loadtest-report.csv"));
+
+        long[] productRange = new long[2];
+        long seededUsers;
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT min(id), max(id) FROM products")) {
+                rs.next();
+                productRange[0] = rs.getLong(1);
+                productRange[1] = rs.getLong(2);
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM users WHERE email LIKE 'loadtest-user-%'")) {
+                rs.next();
+                seededUsers = rs.getLong(1);
+            }
+        }
+        if (seededUsers == 0 || productRange[1] == 0) {
+            throw new IllegalStateException("No seeded data found, run CatalogSeeder first");
+        }
+
+        // Each user gets an equal share of the target rate
+        long interval = rate > 0 ? (long) (users * 1_000_000_000L / rate) : 0;
+        System.out.printf("Running %d virtual users against %s for %ds after %ds warmup at %s, mix %s%n",
+                users, baseUrl, duration.toSeconds(), warmup.toSeconds(),
+                rate > 0 ? rate + " operations/s" : "a closed loop", mix.operations());
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                String email = CatalogSeeder.EMAIL_FORMAT.formatted(i % seededUsers + 1);
+                executor.submit(new VirtualUser(client, baseUrl, email, password, mix,
+                        productRange[0], productRange[1], interval, measureFrom, deadline, recorder));
+            }
+        }
+
+        List<LatencyRecorder.Summary> summaries = recorder.summarize(duration.toMillis() / 1000.0);
+        LatencyRecorder.print(summaries);
+        if (rate <= 0) {
+            System.out.println("Closed loop: each user waited for its previous response, so latencies leave out"
+                    + " the queueing a paced client would have seen (coordinated omission). Set load.rate to measure it.");
+        } else {
+            System.out.println("Latency is measured from each operation's scheduled start. Cart and checkout send"
+                    + " two requests per operation; if the total falls short of load.rate, raise load.users.");
+        }
+        LatencyRecorder.writeCsv(summaries, report);
+        System.out.printf("Report written to %s%n", report.toAbsolutePath());
+    }
+}
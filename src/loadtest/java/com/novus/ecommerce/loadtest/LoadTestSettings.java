@@ -0,0 +1,45 @@
+package com.novus.ecommerce.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Harness settings come from {@code -D} system properties, falling back to the environment
+ * variables the application itself reads where one exists.
+ */
+final class LoadTestSettings {
+
+    private LoadTestSettings() {
+    }
+
+    static String string(String property, String env, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null && env != null) {
+            value = System.getenv(env);
+        }
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    static int integer(String property, int defaultValue) {
+        return Integer.parseInt(string(property, null, String.valueOf(defaultValue)));
+    }
+
+    static long number(String property, long defaultValue) {
+        return Long.parseLong(string(property, null, String.valueOf(defaultValue)));
+    }
+
+    static double decimal(String property, double defaultValue) {
+        return Double.parseDouble(string(property, null, String.valueOf(defaultValue)));
+    }
+
+    static Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", string("db.username", "DB_USERNAME", "postgres"));
+        properties.setProperty("password", string("db.password", "DB_PASSWORD", "postgres"));
+        // Lets the driver collapse each JDBC batch into multi-row INSERT statements
+        properties.setProperty("reWriteBatchedInserts", "true");
+        return DriverManager.getConnection(string("db.url", "DB_URL", "jdbc:postgresql://localhost:5432/novus"), properties);
+    }
+}
@@ -0,0 +1,120 @@
+package com.novus.ecommerce.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.novus.ecommerce.loadtest.LoadTestSettings.integer;
+
+/**
+ * Local stand-ins for the external services, so load runs never reach real SMTP or S3:
+ * an SMTP sink that accepts and discards every message, and an S3-compatible stub that
+ * acknowledges every object operation. Point the application at them with
+ * {@code src/loadtest/config/application-loadtest.yml}.
+ */
+public final class StandInServers {
+
+    private static final AtomicLong MAILS = new AtomicLong();
+    private static final AtomicLong SMTP_SESSIONS = new AtomicLong();
+    private static final AtomicLong OBJECT_REQUESTS = new AtomicLong();
+
+    private StandInServers() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int smtpPort = integer("standin.smtp-port", 2525);
+        int s3Port = integer("standin.s3-port", 4566);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        HttpServer s3 = HttpServer.create(new InetSocketAddress(s3Port), 0);
+        s3.createContext("/", StandInServers::handleObjectRequest);
+        s3.setExecutor(executor);
+        s3.start();
+
+        System.out.printf("S3 stand-in on http://localhost:%d, SMTP sink on localhost:%d%n", s3Port, smtpPort);
+        Thread.ofPlatform().daemon().start(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                System.out.printf("Stand-ins served %,d mails over %,d SMTP sessions and %,d object requests%n",
+                        MAILS.get(), SMTP_SESSIONS.get(), OBJECT_REQUESTS.get());
+            }
+        });
+
+        try (ServerSocket smtp = new ServerSocket(smtpPort)) {
+            while (true) {
+                Socket socket = smtp.accept();
+                executor.submit(() -> handleSmtpSession(socket));
+            }
+        }
+    }
+
+    private static void handleObjectRequest(HttpExchange exchange) throws IOException {
+        OBJECT_REQUESTS.incrementAndGet();
+        try (exchange) {
+            exchange.getRequestBody().transferTo(java.io.OutputStream.nullOutputStream());
+            switch (exchange.getRequestMethod()) {
+                case "DELETE" -> exchange.sendResponseHeaders(204, -1);
+                case "GET" -> {
+                    byte[] body = "stand-in object".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                default -> {
+                    exchange.getResponseHeaders().add("ETag", "\"stand-in\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+            }
+        }
+    }
+
+    private static void handleSmtpSession(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            SMTP_SESSIONS.incrementAndGet();
+            reply(out, "220 localhost stand-in SMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard the message body
+                        }
+                        MAILS.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            System.err.printf("SMTP session ended: %s%n", e.getMessage());
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}
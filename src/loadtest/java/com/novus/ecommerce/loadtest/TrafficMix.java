@@ -0,0 +1,52 @@
+package com.novus.ecommerce.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted operation mix parsed from {@code browse:40,search:25,...}.
+ */
+record TrafficMix(List<Operation> operations, int[] cumulativeWeights) {
+
+    enum Operation {
+        BROWSE, SEARCH, SUGGEST, PRODUCT, CART, CHECKOUT
+    }
+
+    static TrafficMix parse(String spec) {
+        List<Operation> operations = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Traffic mix entries must look like operation:weight, got " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                operations.add(Operation.valueOf(pair[0].trim().toUpperCase()));
+                weights.add(weight);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no operation with a positive weight");
+        }
+
+        int[] cumulative = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += weights.get(i);
+            cumulative[i] = total;
+        }
+        return new TrafficMix(List.copyOf(operations), cumulative);
+    }
+
+    Operation next(RandomGenerator random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
@@ -0,0 +1,183 @@
+package com.novus.ecommerce.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated shopper: logs in as a seeded user, then issues operations from the traffic mix until
+ * the deadline, one every {@code interval}. Latency is measured from when an operation was due, not
+ * from when it was sent, so time spent waiting behind a slow response counts against the server
+ * instead of silently lowering the offered load (coordinated omission). An interval of 0 issues
+ * operations back to back, a closed loop whose latencies leave that waiting out.
+ */
+final class VirtualUser implements Runnable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String email;
+    private final String password;
+    private final TrafficMix mix;
+    private final long minProductId;
+    private final long maxProductId;
+    private final long interval;
+    private final long measureFrom;
+    private final long deadline;
+    private final LatencyRecorder recorder;
+
+    private String accessCookie;
+    private Long addressId;
+    // When the current operation was due; its first request is measured from here
+    private long dueAt = -1;
+
+    VirtualUser(HttpClient client, String baseUrl, String email, String password, TrafficMix mix,
+                long minProductId, long maxProductId, long interval, long measureFrom, long deadline,
+                LatencyRecorder recorder) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.password = password;
+        this.mix = mix;
+        this.minProductId = minProductId;
+        this.maxProductId = maxProductId;
+        this.interval = interval;
+        this.measureFrom = measureFrom;
+        this.deadline = deadline;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            login();
+            // Users start spread over one interval so their schedules do not line up
+            long next = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+            while (next < deadline) {
+                if (interval > 0) {
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        Thread.sleep(Duration.ofNanos(wait));
+                    }
+                    dueAt = next;
+                    next += interval;
+                } else {
+                    next = System.nanoTime();
+                }
+                switch (mix.next(random)) {
+                    case BROWSE -> browse(random);
+                    case SEARCH -> send("GET /api/products?name", get("/api/products?size=20&name="
+                            + encode(CatalogVocabulary.searchTerm(random))));
+                    case SUGGEST -> send("GET /api/products/suggest", get("/api/products/suggest?q="
+                            + encode(CatalogVocabulary.suggestPrefix(random))));
+                    case PRODUCT -> send("GET /api/products/{id}", get("/api/products/" + randomProduct(random)));
+                    case CART -> {
+                        addToCart(random);
+                        send("GET /api/cart", get("/api/cart"));
+                    }
+                    case CHECKOUT -> {
+                        addToCart(random);
+                        send("POST /api/orders/checkout", post("/api/orders/checkout?addressId=" + address()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.printf("Virtual user %s stopped: %s%n", email, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void browse(ThreadLocalRandom random) throws IOException, InterruptedException {
+        if (random.nextInt(4) == 0) {
+            send("GET /api/products?category", get("/api/products?size=20&category="
+                    + encode(CatalogVocabulary.pick(random, CatalogVocabulary.CATEGORIES))));
+        } else {
+            send("GET /api/products", get("/api/products?size=20&page=" + random.nextInt(50)));
+        }
+    }
+
+    private void addToCart(ThreadLocalRandom random) throws IOException, InterruptedException {
+        send("POST /api/cart/add/{id}", post("/api/cart/add/" + randomProduct(random) + "?quantity=1"));
+    }
+
+    private long randomProduct(ThreadLocalRandom random) {
+        return random.nextLong(minProductId, maxProductId + 1);
+    }
+
+    private long address() throws IOException, InterruptedException {
+        if (addressId == null) {
+            HttpResponse<String> response = client.send(get("/api/addresses"), HttpResponse.BodyHandlers.ofString());
+            addressId = MAPPER.readTree(response.body()).path("data").path(0).path("id").asLong();
+        }
+        return addressId;
+    }
+
+    private void login() throws IOException, InterruptedException {
+        String body = MAPPER.writeValueAsString(java.util.Map.of("email", email, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        record("POST /api/auth/login", start, response.statusCode());
+
+        accessCookie = response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("Access-Token="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()))
+                .findFirst()
+                .orElseThrow(() -> new IOException("Login failed for " + email + " with status " + response.statusCode()));
+    }
+
+    private void send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long start = dueAt >= 0 ? dueAt : System.nanoTime();
+        dueAt = -1;
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        record(endpoint, start, response.statusCode());
+
+        if (response.statusCode() == 401) {
+            // The access token outlived its expiry during a long run
+            login();
+        }
+    }
+
+    private void record(String endpoint, long start, int status) {
+        long end = System.nanoTime();
+        if (start >= measureFrom) {
+            recorder.record(endpoint, end - start, status < 400);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return request(path).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Cookie", accessCookie);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.novus.ecommerce.cache;
+
+/**
+ * Broadcasts cache evictions to the other application nodes.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * @param key the evicted key, or {@code null} when the whole cache was cleared
+     */
+    void publish(String cacheName, String key);
+
+    void subscribe(Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+        void onInvalidation(String cacheName, String key);
+    }
+}
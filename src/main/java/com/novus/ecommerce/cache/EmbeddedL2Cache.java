@@ -0,0 +1,51 @@
+package com.novus.ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link L2Cache} held in the node's own heap, for single-node deployments and tests. Each node has
+ * its own copy, so evictions reach the other nodes only through the {@link CacheInvalidationBus}.
+ */
+public class EmbeddedL2Cache implements L2Cache {
+
+    private final Map<String, Cache<String, Object>> caches = new ConcurrentHashMap<>();
+    private final Duration timeToLive;
+    private final long maximumSize;
+
+    public EmbeddedL2Cache(Duration timeToLive, long maximumSize) {
+        this.timeToLive = timeToLive;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return cache(cacheName).getIfPresent(key);
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value) {
+        cache(cacheName).put(key, value);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        cache(cacheName).invalidate(key);
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        cache(cacheName).invalidateAll();
+    }
+
+    private Cache<String, Object> cache(String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(maximumSize)
+                .build());
+    }
+}
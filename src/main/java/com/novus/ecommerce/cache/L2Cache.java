@@ -0,0 +1,20 @@
+package com.novus.ecommerce.cache;
+
+/**
+ * Second cache tier read by {@link TwoTierCache} when its per-node L1 misses. Declare a bean of this
+ * type to put a store shared by every node behind the L1; without one the {@link EmbeddedL2Cache} is used.
+ * Keys are the string form of the Spring cache key.
+ */
+public interface L2Cache {
+
+    /**
+     * @return the cached value, or {@code null} on a miss
+     */
+    Object get(String cacheName, String key);
+
+    void put(String cacheName, String key, Object value);
+
+    void evict(String cacheName, String key);
+
+    void clear(String cacheName);
+}
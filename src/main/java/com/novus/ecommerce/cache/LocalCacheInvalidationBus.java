@@ -0,0 +1,15 @@
+package com.novus.ecommerce.cache;
+
+/**
+ * Bus for single-node deployments: there are no other nodes to notify.
+ */
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    @Override
+    public void publish(String cacheName, String key) {
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.novus.ecommerce.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Uses PostgreSQL LISTEN/NOTIFY, which every node already shares, to fan out cache
+ * evictions. Listening and publishing each hold one dedicated connection per node, opened outside
+ * the pool so they never take a slot from requests.
+ * <p>
+ * {@link #publish} only queues the key. A publisher thread drains the queue and sends everything
+ * that piled up as one notification per cache, so a checkout evicting twenty products costs one
+ * round trip instead of twenty.
+ */
+@Slf4j
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final String CLEAR_ALL = "*";
+    private static final char KEY_SEPARATOR = '\u001F';
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7500;
+    private static final int QUEUE_CAPACITY = 100_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final DataSource dataSource;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Invalidation> pending = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile Thread listenerThread;
+    private volatile Thread publisherThread;
+    private volatile boolean running;
+
+    /**
+     * @param dataSource non-pooled data source that opens the listening and publishing connections
+     */
+    public PostgresCacheInvalidationBus(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Queues the key rather than notifying on the caller's connection. Most publishes run in
+     * after-commit callbacks, where a statement on the finished transaction's connection would
+     * never be committed and the notification never sent.
+     */
+    @Override
+    public void publish(String cacheName, String key) {
+        if (!pending.offer(new Invalidation(cacheName, key))) {
+            log.warn("Cache invalidation queue is full, other nodes keep {} in {} until it expires", key, cacheName);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void publishPending() {
+        List<Invalidation> batch = new ArrayList<>();
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                connection.setAutoCommit(true);
+                while (running) {
+                    if (batch.isEmpty()) {
+                        batch.add(pending.take());
+                        pending.drainTo(batch);
+                    }
+                    for (String payload : payloads(batch)) {
+                        statement.setString(1, CHANNEL);
+                        statement.setString(2, payload);
+                        statement.execute();
+                    }
+                    batch.clear();
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation publisher lost its connection, retrying {} invalidation(s)",
+                            batch.size(), e);
+                    sleepBeforeReconnect();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // One payload per cache (more if its keys do not fit): nodeId|cache|key<US>key...
+    private List<String> payloads(List<Invalidation> batch) {
+        Map<String, Set<String>> keysByCache = new LinkedHashMap<>();
+        for (Invalidation invalidation : batch) {
+            Set<String> keys = keysByCache.computeIfAbsent(invalidation.cacheName(), name -> new LinkedHashSet<>());
+            if (invalidation.key() == null) {
+                keys.clear();
+                keys.add(CLEAR_ALL);
+            } else if (!keys.contains(CLEAR_ALL)) {
+                keys.add(invalidation.key());
+            }
+        }
+
+        List<String> payloads = new ArrayList<>();
+        keysByCache.forEach((cacheName, keys) -> {
+            String prefix = nodeId + "|" + cacheName + "|";
+            StringBuilder payload = new StringBuilder(prefix);
+            for (String key : keys) {
+                if (payload.length() > prefix.length()
+                        && utf8Length(payload) + 1 + utf8Length(key) > MAX_PAYLOAD_BYTES) {
+                    payloads.add(payload.toString());
+                    payload.setLength(prefix.length());
+                }
+                if (payload.length() > prefix.length()) {
+                    payload.append(KEY_SEPARATOR);
+                }
+                payload.append(key);
+            }
+            payloads.add(payload.toString());
+        });
+        return payloads;
+    }
+
+    private static int utf8Length(CharSequence text) {
+        return text.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, reconnecting", e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        for (String key : parts[2].split(String.valueOf(KEY_SEPARATOR))) {
+            String evicted = CLEAR_ALL.equals(key) ? null : key;
+            listeners.forEach(listener -> listener.onInvalidation(parts[1], evicted));
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon(true)
+                .start(this::listen);
+        publisherThread = Thread.ofPlatform()
+                .name("cache-invalidation-publisher")
+                .daemon(true)
+                .start(this::publishPending);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread thread : new Thread[]{listenerThread, publisherThread}) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record Invalidation(String cacheName, String key) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.novus.ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} backed by a per-node Caffeine L1 that reads through
+ * to an {@link L2Cache} on a miss. Evictions are applied to both tiers and broadcast over the
+ * {@link CacheInvalidationBus} so other nodes drop their L1 copy. Keys are normalized to strings so
+ * they survive the trip between nodes.
+ * <p>
+ * L2 is only filled on a miss in both tiers, and only if no eviction for the key's stripe happened
+ * while the value was loading, so a slow load can never put back a value an eviction just removed.
+ * Background refreshes of the L1 never write L2 for the same reason.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final L2Cache shared;
+    private final CacheInvalidationBus bus;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public TwoTierCache(String name, Cache<String, Object> local, L2Cache shared, CacheInvalidationBus bus) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.bus = bus;
+        bus.subscribe((cacheName, key) -> {
+            if (name.equals(cacheName)) {
+                invalidateLocally(key);
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<String, Object> getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return local.get(String.valueOf(key), k -> shared.get(name, k));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) local.get(String.valueOf(key), k -> {
+            Object value = shared.get(name, k);
+            if (value == null) {
+                long generation = generations.get(stripe(k));
+                try {
+                    value = valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(key, valueLoader, e);
+                }
+                if (value != null && generations.get(stripe(k)) == generation) {
+                    shared.put(name, k, value);
+                }
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String k = String.valueOf(key);
+        shared.put(name, k, value);
+        local.put(k, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String k = String.valueOf(key);
+        generations.incrementAndGet(stripe(k));
+        shared.evict(name, k);
+        local.invalidate(k);
+        bus.publish(name, k);
+    }
+
+    @Override
+    public void clear() {
+        bumpAllGenerations();
+        shared.clear(name);
+        local.invalidateAll();
+        bus.publish(name, null);
+    }
+
+    // The evicting node already cleared a shared L2; repeating it here covers the embedded one
+    private void invalidateLocally(String key) {
+        if (key == null) {
+            bumpAllGenerations();
+            shared.clear(name);
+            local.invalidateAll();
+        } else {
+            generations.incrementAndGet(stripe(key));
+            shared.evict(name, key);
+            local.invalidate(key);
+        }
+    }
+
+    private void bumpAllGenerations() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(String key) {
+        return key.hashCode() & (GENERATION_STRIPES - 1);
+    }
+}
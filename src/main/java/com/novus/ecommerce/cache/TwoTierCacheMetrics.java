@@ -0,0 +1,32 @@
+package com.novus.ecommerce.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+/**
+ * Exports hit, miss, eviction and load-time metrics for every {@link TwoTierCache} L1.
+ * Plain Caffeine caches are bound by Spring Boot's cache metrics auto-configuration.
+ */
+@RequiredArgsConstructor
+public class TwoTierCacheMetrics implements MeterBinder {
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof TwoTierCache twoTierCache) {
+                CaffeineCacheMetrics.monitor(registry, twoTierCache.getNativeCache(), name, "cacheManager", "cacheManager");
+            }
+        }
+    }
+}
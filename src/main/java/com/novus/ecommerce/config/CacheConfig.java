@@ -1,23 +1,182 @@
 package com.novus.ecommerce.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.novus.ecommerce.cache.CacheInvalidationBus;
+import com.novus.ecommerce.cache.EmbeddedL2Cache;
+import com.novus.ecommerce.cache.L2Cache;
+import com.novus.ecommerce.cache.LocalCacheInvalidationBus;
+import com.novus.ecommerce.cache.PostgresCacheInvalidationBus;
+import com.novus.ecommerce.cache.TwoTierCache;
+import com.novus.ecommerce.cache.TwoTierCacheMetrics;
+import com.novus.ecommerce.exception.custom.EntityNotFoundException;
+import com.novus.ecommerce.repository.CategoryRepository;
+import com.novus.ecommerce.security.jwt.VerifiedToken;
+import com.novus.ecommerce.security.jwt.VerifiedTokenCache;
+import com.novus.ecommerce.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
 
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties(CacheSpecProperties.class)
 public class CacheConfig {
 
+    private static final List<String> TWO_TIER_CACHES = List.of("products");
+
+    @Bean
+    @ConditionalOnMissingBean(L2Cache.class)
+    public L2Cache embeddedL2Cache(@Value("${app.cache.l2.ttl:30m}") Duration ttl,
+                                   @Value("${app.cache.l2.max-size:100000}") long maxSize) {
+        return new EmbeddedL2Cache(ttl, maxSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation", havingValue = "postgres")
+    public CacheInvalidationBus postgresCacheInvalidationBus(DataSourceProperties dataSourceProperties) {
+        // LISTEN and the publisher each pin a connection for the life of the node, so neither comes from the pool
+        DataSource dedicatedDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+        return new PostgresCacheInvalidationBus(dedicatedDataSource);
+    }
+
     @Bean
-    public CacheManager cacheManager() {
+    @ConditionalOnProperty(name = "app.cache.invalidation", havingValue = "local", matchIfMissing = true)
+    public CacheInvalidationBus localCacheInvalidationBus() {
+        return new LocalCacheInvalidationBus();
+    }
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties cacheSpecProperties,
+                                     ObjectProvider<ProductService> productService,
+                                     ObjectProvider<CategoryRepository> categoryRepository,
+                                     S3Config s3Config,
+                                     L2Cache l2Cache,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     @Value("${jwt.verified_cache.enabled:false}") boolean verifiedCacheEnabled,
+                                     @Value("${jwt.verified_cache.max_size:10000}") long verifiedCacheMaxSize) {
+        Map<String, CacheLoader<Object, Object>> cacheLoaders = cacheLoaders(productService, categoryRepository);
+
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .maximumSize(1000)
-                .recordStats());
-        return cacheManager;
+        cacheManager.setCacheSpecification(cacheSpecProperties.defaultSpec());
+
+        // Register configured caches up front so their metrics are bound at startup
+        cacheSpecProperties.specs().forEach((name, spec) -> {
+            if (!TWO_TIER_CACHES.contains(name)) {
+                cacheManager.registerCustomCache(name, build(spec, cacheLoaders.get(name)));
+            }
+        });
+
+        // Presigned URLs must be dropped before their signature expires
+        long presignedUrlTtl = Math.max(1,
+                s3Config.getDownloadExpirationMinutes() - s3Config.getCacheMarginMinutes());
+        cacheManager.registerCustomCache("presigned_urls", Caffeine.newBuilder()
+                .expireAfterWrite(presignedUrlTtl, TimeUnit.MINUTES)
+                .maximumSize(s3Config.getCacheMaxSize())
+                .recordStats()
+                .build());
+
+        if (verifiedCacheEnabled) {
+            cacheManager.registerCustomCache(VerifiedTokenCache.CACHE_NAME, Caffeine.newBuilder()
+                    .expireAfter(untilTokenExpiry())
+                    .maximumSize(verifiedCacheMaxSize)
+                    .recordStats()
+                    .build());
+        }
+
+        // Products are served from a per-node L1 in front of the L2; evictions wait for commit.
+        // Background refreshes only replace the L1 copy: Caffeine drops a refresh that an eviction
+        // overtook, while an L2 write from the loader could land after the eviction and stick.
+        SimpleCacheManager twoTierCacheManager = new SimpleCacheManager();
+        twoTierCacheManager.setCaches(TWO_TIER_CACHES.stream()
+                .map(name -> (Cache) new TransactionAwareCacheDecorator(new TwoTierCache(
+                        name,
+                        build(cacheSpecProperties.specFor(name), cacheLoaders.get(name)),
+                        l2Cache,
+                        cacheInvalidationBus)))
+                .toList());
+        twoTierCacheManager.initializeCaches();
+
+        return new CompositeCacheManager(twoTierCacheManager, cacheManager);
+    }
+
+    @Bean
+    public TwoTierCacheMetrics twoTierCacheMetrics(CacheManager cacheManager) {
+        return new TwoTierCacheMetrics(cacheManager);
+    }
+
+    /**
+     * Loaders used by Caffeine's refreshAfterWrite to reload hot keys in the background
+     * while callers keep getting the previous value.
+     */
+    private static Map<String, CacheLoader<Object, Object>> cacheLoaders(
+            ObjectProvider<ProductService> productService, ObjectProvider<CategoryRepository> categoryRepository) {
+        return Map.of(
+                "products", key -> {
+                    try {
+                        return productService.getObject().loadSnapshot(Long.valueOf(key.toString()));
+                    } catch (EntityNotFoundException e) {
+                        return null;
+                    }
+                },
+                "categories", key -> "all".equals(key)
+                        ? categoryRepository.getObject().findAll()
+                        : categoryRepository.getObject().findByName(key.toString()).orElse(null));
+    }
+
+    // maximumWeight needs a weigher; collections weigh their size, anything else weighs 1
+    private static <K> com.github.benmanes.caffeine.cache.Cache<K, Object> build(String spec,
+                                                                              CacheLoader<Object, Object> loader) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (spec.contains("maximumWeight")) {
+            builder.weigher((key, value) -> value instanceof Collection<?> collection
+                    ? Math.max(1, collection.size())
+                    : 1);
+        }
+        if (spec.contains("refreshAfterWrite") && loader == null) {
+            throw new IllegalStateException("refreshAfterWrite needs a cache loader: " + spec);
+        }
+        return loader != null ? builder.build(loader) : builder.build();
+    }
+
+    private static Expiry<Object, Object> untilTokenExpiry() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                long remainingMillis = ((VerifiedToken) value).expiration().getTime() - System.currentTimeMillis();
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
     }
 }
@@ -0,0 +1,26 @@
+package com.novus.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Caffeine specifications per cache name (e.g. {@code maximumSize=1000,expireAfterWrite=10m,recordStats}).
+ * Caches without an entry use {@code defaultSpec}.
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheSpecProperties(String defaultSpec, Map<String, String> specs) {
+
+    public CacheSpecProperties {
+        if (defaultSpec == null) {
+            defaultSpec = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+        }
+        if (specs == null) {
+            specs = Map.of();
+        }
+    }
+
+    public String specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, defaultSpec);
+    }
+}
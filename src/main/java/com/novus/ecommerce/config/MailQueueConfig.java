@@ -0,0 +1,30 @@
+package com.novus.ecommerce.config;
+
+import com.novus.ecommerce.mail.MailDispatcher;
+import com.novus.ecommerce.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mails are always queued; {@code app.mail.queue.enabled=false} only stops this node from
+ * delivering them, e.g. to keep SMTP traffic on dedicated worker nodes.
+ */
+@Configuration
+@EnableConfigurationProperties(MailQueueProperties.class)
+public class MailQueueConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.mail.queue.enabled", havingValue = "true", matchIfMissing = true)
+    public MailDispatcher mailDispatcher(OutboundEmailRepository repository, JavaMailSender mailSender,
+                                         PlatformTransactionManager transactionManager,
+                                         MailQueueProperties properties, MeterRegistry meterRegistry) {
+        return new MailDispatcher(repository, mailSender, new TransactionTemplate(transactionManager),
+                properties, meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.novus.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Delivery settings for the outbound mail queue. {@code messagesPerSession} mails share one SMTP
+ * connection, {@code workers} sessions run at a time and {@code ratePerSecond} caps the relay load
+ * across all of them. Sent and failed mails are deleted once they are older than {@code retention},
+ * so the table does not keep every body, verification links included, forever.
+ */
+@ConfigurationProperties(prefix = "app.mail.queue")
+public record MailQueueProperties(Duration pollInterval, Integer workers, Integer messagesPerSession,
+                                  Double ratePerSecond, Integer maxAttempts, Duration initialBackoff,
+                                  Duration maxBackoff, Duration lease, Duration retention) {
+
+    public MailQueueProperties {
+        if (pollInterval == null) {
+            pollInterval = Duration.ofSeconds(1);
+        }
+        if (workers == null) {
+            workers = 2;
+        }
+        if (messagesPerSession == null) {
+            messagesPerSession = 50;
+        }
+        if (ratePerSecond == null) {
+            ratePerSecond = 10.0;
+        }
+        if (maxAttempts == null) {
+            maxAttempts = 6;
+        }
+        if (initialBackoff == null) {
+            initialBackoff = Duration.ofSeconds(30);
+        }
+        if (maxBackoff == null) {
+            maxBackoff = Duration.ofHours(1);
+        }
+        if (lease == null) {
+            lease = Duration.ofMinutes(5);
+        }
+        if (retention == null) {
+            retention = Duration.ofDays(7);
+        }
+    }
+}
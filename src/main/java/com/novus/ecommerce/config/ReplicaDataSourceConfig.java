@@ -0,0 +1,81 @@
+package com.novus.ecommerce.config;
+
+import com.novus.ecommerce.datasource.ReadYourWrites;
+import com.novus.ecommerce.datasource.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with primary/replica routing once at least one replica
+ * is configured under {@code app.datasource.replicas}. Routing is Spring's own: a
+ * {@link LazyConnectionDataSourceProxy} sends transactions marked read-only to its read-only data
+ * source and everything else to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               DataSourceProperties properties,
+                                               ReplicaProperties replicaProperties,
+                                               ObjectProvider<ReadYourWrites> readYourWrites) {
+        List<ReplicaDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.replicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.replicas().get(i);
+            String name = "replica-" + (i + 1);
+
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setUsername(replica.username() != null ? replica.username() : properties.determineUsername());
+            dataSource.setPassword(replica.password() != null ? replica.password() : properties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.maximumPoolSize() != null
+                    ? replica.maximumPoolSize()
+                    : primaryDataSource.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            dataSource.setReadOnly(true);
+            // Unreachable replicas must not stop the application from starting
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaDataSource.Replica(name, dataSource));
+        }
+
+        // Resolved per connection: read-your-writes reaches the data source through the invalidation bus
+        return new ReplicaDataSource(primaryDataSource, replicas, replicaProperties.maxReplicationLag(),
+                () -> readYourWrites.getObject().isCurrentUserRecentWriter());
+    }
+
+    /**
+     * Defers fetching a physical connection until the first statement, by which point the
+     * transaction manager has marked the connection read-only or not.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
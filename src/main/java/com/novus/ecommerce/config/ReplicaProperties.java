@@ -0,0 +1,27 @@
+package com.novus.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas that serve {@code @Transactional(readOnly = true)} work. Routing stays off while
+ * the list is empty. {@code app.datasource.health-check-interval} is read by the scheduled health
+ * check in {@link com.novus.ecommerce.datasource.ReplicaDataSource}.
+ */
+@ConfigurationProperties(prefix = "app.datasource")
+public record ReplicaProperties(List<Replica> replicas, Duration maxReplicationLag) {
+
+    public ReplicaProperties {
+        if (replicas == null) {
+            replicas = List.of();
+        }
+        if (maxReplicationLag == null) {
+            maxReplicationLag = Duration.ofSeconds(10);
+        }
+    }
+
+    public record Replica(String url, String username, String password, Integer maximumPoolSize) {
+    }
+}
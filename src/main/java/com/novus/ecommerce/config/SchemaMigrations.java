@@ -0,0 +1,123 @@
+package com.novus.ecommerce.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema changes that must not run inside data.sql: statements that cannot run in a transaction,
+ * or that would take a blocking lock on a busy table. Each step checks the catalog first and is a
+ * no-op once applied. Runs on PostgreSQL only, on plain autocommit connections.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaMigrations {
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.debug("Skipping schema migrations on {}", database);
+            return;
+        }
+        try {
+            createIndexConcurrently("idx_refresh_token_expiry_date", "refresh_token", "expiry_date");
+            hashLegacyRefreshTokens();
+        } catch (DataAccessException e) {
+            log.error("Schema migration failed, it is retried on the next start", e);
+        }
+    }
+
+    /**
+     * A plain CREATE INDEX holds a SHARE lock that blocks every write to the table for the whole
+     * build. CONCURRENTLY lets writes through, but leaves an INVALID index behind if it fails,
+     * which IF NOT EXISTS would then skip; such an index is dropped and built again.
+     */
+    private void createIndexConcurrently(String index, String table, String columns) {
+        Boolean valid = jdbcTemplate.query("""
+                        SELECT i.indisvalid FROM pg_index i
+                        JOIN pg_class c ON c.oid = i.indexrelid
+                        WHERE c.relname = ? AND pg_table_is_visible(c.oid)
+                        """,
+                rs -> rs.next() ? rs.getBoolean(1) : null, index);
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(valid)) {
+            log.warn("Index {} was left invalid by an earlier build, rebuilding it", index);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+        }
+        log.info("Creating index {} on {} ({})", index, table, columns);
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index + " ON " + table + " (" + columns + ")");
+    }
+
+    /**
+     * Expand step for refresh tokens stored as digests. While the raw {@code token} column still
+     * exists, nodes of the previous release may be writing it, so it is only made nullable (a
+     * catalog change without a table scan). A trigger keeps both columns consistent whichever
+     * release writes the row: an old node setting {@code token} gets its digest computed, a new node
+     * rotating the digest has the stale {@code token} cleared. Rows whose digest does not match
+     * their token are then rehashed in small batches. Dropping the column is the one-off
+     * {@code db/manual/refresh_token_drop_raw_token.sql}, run once no node of the previous release is left.
+     */
+    private void hashLegacyRefreshTokens() {
+        String nullable = jdbcTemplate.query("""
+                        SELECT is_nullable FROM information_schema.columns
+                        WHERE table_schema = current_schema() AND table_name = 'refresh_token' AND column_name = 'token'
+                        """,
+                rs -> rs.next() ? rs.getString(1) : null);
+        if (nullable == null) {
+            return;
+        }
+        if ("NO".equals(nullable)) {
+            log.info("Making refresh_token.token nullable, tokens are now stored as digests");
+            jdbcTemplate.execute("ALTER TABLE refresh_token ALTER COLUMN token DROP NOT NULL");
+        }
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION refresh_token_sync_hash() RETURNS trigger AS $$
+                BEGIN
+                    IF NEW.token IS NOT NULL AND (TG_OP = 'INSERT' OR NEW.token IS DISTINCT FROM OLD.token) THEN
+                        NEW.token_hash := sha256(convert_to(NEW.token, 'UTF8'));
+                    ELSIF TG_OP = 'UPDATE' AND NEW.token_hash IS DISTINCT FROM OLD.token_hash THEN
+                        NEW.token := NULL;
+                    END IF;
+                    RETURN NEW;
+                END
+                $$ LANGUAGE plpgsql
+                """);
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE TRIGGER refresh_token_sync_hash
+                BEFORE INSERT OR UPDATE ON refresh_token
+                FOR EACH ROW EXECUTE FUNCTION refresh_token_sync_hash()
+                """);
+
+        long hashed = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update("""
+                    UPDATE refresh_token SET token_hash = sha256(convert_to(token, 'UTF8'))
+                    WHERE id IN (
+                        SELECT id FROM refresh_token
+                        WHERE token IS NOT NULL
+                          AND token_hash IS DISTINCT FROM sha256(convert_to(token, 'UTF8'))
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED)
+                    """, BACKFILL_BATCH_SIZE);
+            hashed += updated;
+        } while (updated == BACKFILL_BATCH_SIZE);
+        if (hashed > 0) {
+            log.info("Stored digests for {} legacy refresh token(s)", hashed);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.novus.ecommerce.config;
 
 import com.novus.ecommerce.repository.UserRepository;
+import com.novus.ecommerce.security.jwt.AccessTokenDenylist;
 import com.novus.ecommerce.security.jwt.JwtFilter;
+import com.novus.ecommerce.security.jwt.VerifiedTokenCache;
 import com.novus.ecommerce.security.service.UserDetailsServiceImpl;
 import com.novus.ecommerce.service.TokenService;
 import jakarta.servlet.http.Cookie;
@@ -39,6 +41,8 @@ public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
     private final TokenService tokenService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AccessTokenDenylist accessTokenDenylist;
     private final AccessDeniedHandler accessDeniedHandler;
     private final AuthenticationEntryPoint authenticationEntryPoint;
     private final CorsConfigurationSource corsConfigurationSource;
@@ -61,6 +65,11 @@ public class SecurityConfig {
                         .logoutUrl("/api/auth/logout")
                         .deleteCookies("Access-Token", "Refresh-Token")
                         .logoutSuccessHandler((request, response, authentication) -> {
+                            Cookie accessTokenCookie = WebUtils.getCookie(request, "Access-Token");
+                            if (accessTokenCookie != null) {
+                                accessTokenDenylist.revoke(accessTokenCookie.getValue());
+                                verifiedTokenCache.invalidate(accessTokenCookie.getValue());
+                            }
                             Cookie refreshTokenCookie = WebUtils.getCookie(request, "Refresh-Token");
                             if (refreshTokenCookie != null) {
                                 tokenService.revokeUserToken(refreshTokenCookie.getValue());
@@ -72,8 +81,11 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth ->
                         auth
                                 .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/verify", "/api/auth/refresh-token").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/api/products", "/api/products/**", "/api/categories").permitAll()
                                 .requestMatchers("/api/products/admin/**", "/api/categories/admin/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.GET, "/api/products", "/api/products/**", "/api/categories").permitAll()
+                                // Load balancers probe health without credentials; the details stay hidden
+                                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+                                .requestMatchers("/actuator/**").hasRole("ADMIN")
                                 .requestMatchers("/api/users/me").authenticated()
                                 .anyRequest().authenticated()
                 );
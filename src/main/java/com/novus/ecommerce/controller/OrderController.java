@@ -1,14 +1,20 @@
 package com.novus.ecommerce.controller;
 
 import com.novus.ecommerce.dto.entity.OrderDto;
+import com.novus.ecommerce.dto.response.CursorPage;
 import com.novus.ecommerce.dto.response.Response;
 import com.novus.ecommerce.entity.User;
 import com.novus.ecommerce.service.OrderService;
 import com.novus.ecommerce.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
@@ -22,24 +28,44 @@ public class OrderController {
     private final OrderService orderService;
     private final UserService userService;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public Response<List<OrderDto>> getOrders() {
+    public Response<List<OrderDto>> getOrders(
+            @RequestParam(required = false, name = "cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
         User user = userService.getActiveUser();
         log.info("GET /api/orders - Fetching orders for user: {}", user.getEmail());
 
-        List<OrderDto> orders = orderService.getOrders(user.getId()).stream()
-                .map(orderService::mapToDto)
-                .toList();
-        log.debug("Found {} orders for user", orders.size());
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        CursorPage<OrderDto> orders = orderService.getOrders(user.getId(), cursor, pageSize);
+        log.debug("Found {} orders for user", orders.content().size());
 
         return Response.<List<OrderDto>>builder()
                 .status(HttpStatus.OK.value())
                 .message("Orders retrieved successfully")
-                .data(orders)
+                .data(orders.content())
+                .pageSize(pageSize)
+                .nextCursor(orders.nextCursor())
                 .build();
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        User user = userService.getActiveUser();
+        log.info("GET /api/orders/export - Exporting order history for user: {}", user.getEmail());
+        Long userId = user.getId();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders.ndjson")
+                        .build()
+                        .toString())
+                .body(output -> orderService.exportOrders(userId, output));
+    }
+
     @GetMapping("/{orderId}")
     @ResponseStatus(HttpStatus.OK)
     public Response<OrderDto> getOrder(@PathVariable Long orderId) throws AccessDeniedException {
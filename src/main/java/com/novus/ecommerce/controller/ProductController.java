@@ -1,19 +1,33 @@
 package com.novus.ecommerce.controller;
 
 import com.novus.ecommerce.dto.entity.ProductDto;
+import com.novus.ecommerce.dto.entity.ProductSnapshot;
+import com.novus.ecommerce.dto.response.CursorPage;
+import com.novus.ecommerce.dto.response.ImportResult;
 import com.novus.ecommerce.dto.response.PresignedUrlResponse;
+import com.novus.ecommerce.dto.response.ProductFacets;
 import com.novus.ecommerce.dto.response.Response;
-import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.dto.response.SuggestionResponse;
+import com.novus.ecommerce.service.ProductBulkService;
 import com.novus.ecommerce.service.ProductService;
 import com.novus.ecommerce.service.S3Service;
+import com.novus.ecommerce.service.SuggestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,6 +38,8 @@ public class ProductController {
 
     private final ProductService productService;
     private final S3Service s3Service;
+    private final SuggestionService suggestionService;
+    private final ProductBulkService productBulkService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -31,9 +47,33 @@ public class ProductController {
             Pageable pageable,
             @RequestParam(required = false, name = "category") String category,
             @RequestParam(required = false, name = "name") String name,
-            @RequestParam(required = false, name = "price") String price) {
+            @RequestParam(required = false, name = "price") String price,
+            @RequestParam(required = false, name = "cursor") String cursor,
+            @RequestParam(required = false, name = "includeTotal", defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false, name = "facets", defaultValue = "false") boolean facets,
+            @RequestParam(required = false, name = "priceBuckets") String priceBuckets) {
         log.info("GET /api/products - Fetching products with filters: category={}, name={}, price={}", category, name,
                 price);
+        ProductFacets productFacets = facets
+                ? productService.getFacets(category, name, price, priceBuckets)
+                : null;
+
+        if (cursor != null) {
+            CursorPage<ProductDto> window = productService.getProductsByCursor(cursor, pageable.getPageSize(),
+                    pageable.getSort(), includeTotal, category, name, price);
+            log.debug("Found {} products after cursor", window.content().size());
+
+            return Response.builder()
+                    .status(HttpStatus.OK.value())
+                    .message("Products retrieved successfully")
+                    .data(window.content())
+                    .pageSize(pageable.getPageSize())
+                    .totalData(window.totalData())
+                    .nextCursor(window.nextCursor())
+                    .facets(productFacets)
+                    .build();
+        }
+
         Page<ProductDto> products = productService.getAllProductsByCriteria(pageable, category, name, price);
         log.debug("Found {} products", products.getTotalElements());
 
@@ -45,6 +85,22 @@ public class ProductController {
                 .pageSize(pageable.getPageSize())
                 .totalPage(products.getTotalPages())
                 .totalData(products.getTotalElements())
+                .facets(productFacets)
+                .build();
+    }
+
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public Response<List<SuggestionResponse>> suggest(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        log.debug("GET /api/products/suggest - Suggesting for prefix={}", query);
+        List<SuggestionResponse> suggestions = suggestionService.suggest(query, Math.clamp(limit, 1, 50));
+
+        return Response.<List<SuggestionResponse>>builder()
+                .status(HttpStatus.OK.value())
+                .message("Suggestions retrieved successfully")
+                .data(suggestions)
                 .build();
     }
 
@@ -52,7 +108,7 @@ public class ProductController {
     @ResponseStatus(HttpStatus.OK)
     public Response<?> findById(@PathVariable Long productId) {
         log.info("GET /api/products/{} - Fetching product by ID", productId);
-        Product product = productService.findById(productId);
+        ProductSnapshot product = productService.getSnapshot(productId);
 
         return Response.builder()
                 .status(HttpStatus.OK.value())
@@ -108,7 +164,7 @@ public class ProductController {
             @RequestParam String fileName
     ) {
         log.info("Generating upload URL for product {} with filename {}", productId, fileName);
-        productService.findById(productId);
+        productService.getSnapshot(productId);
 
         PresignedUrlResponse response = s3Service.getPresignedUploadUrl(productId, fileName);
 
@@ -136,4 +192,36 @@ public class ProductController {
                 .build();
     }
 
+    @PostMapping(value = "/admin/import", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseStatus(HttpStatus.OK)
+    public Response<ImportResult> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        log.info("POST /api/products/admin/import - Bulk importing products as {}", contentType);
+        ImportResult result = productBulkService.importProducts(body, ProductBulkService.Format.of(contentType));
+
+        return Response.<ImportResult>builder()
+                .status(HttpStatus.OK.value())
+                .message(result.failed() == 0
+                        ? "Products imported successfully"
+                        : "Products imported with " + result.failed() + " failed row(s)")
+                .data(result)
+                .build();
+    }
+
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "format", defaultValue = "csv") String format) {
+        ProductBulkService.Format exportFormat = ProductBulkService.Format.of(format);
+        log.info("GET /api/products/admin/export - Bulk exporting products as {}", exportFormat);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.name().toLowerCase())
+                        .build()
+                        .toString())
+                .body(output -> productBulkService.exportProducts(output, exportFormat));
+    }
+
 }
\ No newline at end of file
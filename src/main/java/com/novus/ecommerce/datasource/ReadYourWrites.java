@@ -0,0 +1,56 @@
+package com.novus.ecommerce.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.novus.ecommerce.cache.CacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps a user's reads on the primary for a short window after they write, so they see their own
+ * changes (e.g. a fresh order in the history) even while replicas are catching up.
+ * <p>
+ * Writes are announced on the {@link CacheInvalidationBus}, so the window holds on whichever node
+ * serves the user's next request. The current user is taken from the security context, which
+ * Spring Security also hands to async request processing such as streamed exports.
+ */
+@Component
+public class ReadYourWrites {
+
+    static final String CHANNEL = "read_your_writes";
+
+    private final Cache<String, Boolean> recentWriters;
+    private final CacheInvalidationBus bus;
+
+    public ReadYourWrites(@Value("${app.datasource.read-your-writes-window:10s}") Duration window,
+                          CacheInvalidationBus bus) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        this.bus = bus;
+        bus.subscribe((channel, username) -> {
+            if (CHANNEL.equals(channel) && username != null) {
+                recentWriters.put(username, Boolean.TRUE);
+            }
+        });
+    }
+
+    public void markWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+        bus.publish(CHANNEL, username);
+    }
+
+    public boolean isRecentWriter(String username) {
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    public boolean isCurrentUserRecentWriter() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && isRecentWriter(authentication.getName());
+    }
+}
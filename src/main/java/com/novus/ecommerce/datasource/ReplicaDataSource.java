@@ -0,0 +1,152 @@
+package com.novus.ecommerce.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Read-only data source handed to {@code LazyConnectionDataSourceProxy#setReadOnlyDataSource}: hands
+ * out connections from healthy replicas round robin, and from the primary when no replica is
+ * healthy or the current user has just written.
+ * <p>
+ * Only servers that are in recovery, i.e. streaming from the primary, and lag by at most
+ * {@code maxReplicationLag} join the rotation; any other server would hold a different database.
+ * A replica that fails to hand out a connection is taken out immediately and the request falls back
+ * to the primary.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final String HEALTH_SQL = """
+            SELECT pg_is_in_recovery(),
+                   coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0)
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxReplicationLag;
+    private final BooleanSupplier pinnedToPrimary;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<Replica> replicas, Duration maxReplicationLag,
+                             BooleanSupplier pinnedToPrimary) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxReplicationLag = maxReplicationLag;
+        this.pinnedToPrimary = pinnedToPrimary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (pinnedToPrimary.getAsBoolean()) {
+            return source.open(primary);
+        }
+
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return source.open(replica.dataSource());
+            } catch (SQLException e) {
+                replica.markDown("connection failed: " + e.getMessage());
+            }
+        }
+
+        log.debug("No healthy replica available, serving read-only transaction from the primary");
+        return source.open(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(HEALTH_SQL)) {
+                rs.next();
+                Duration lag = Duration.ofMillis((long) (rs.getDouble(2) * 1000));
+                if (!rs.getBoolean(1)) {
+                    replica.markDown("not in recovery, so not a streaming replica of the primary");
+                } else if (lag.compareTo(maxReplicationLag) > 0) {
+                    replica.markDown("replication lag " + lag.toMillis() + "ms");
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown("health check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile boolean checked;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        DataSource dataSource() {
+            return dataSource;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                log.info("Replica {} is healthy, adding it to read rotation", name);
+                healthy = true;
+            }
+            checked = true;
+        }
+
+        void markDown(String reason) {
+            if (healthy || !checked) {
+                log.warn("Replica {} removed from read rotation: {}", name, reason);
+                healthy = false;
+            }
+            checked = true;
+        }
+    }
+}
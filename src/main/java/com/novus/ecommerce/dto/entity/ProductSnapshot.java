@@ -0,0 +1,18 @@
+package com.novus.ecommerce.dto.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Immutable, detached view of a product used as the value of the {@code products} cache.
+ * Holds the S3 image key rather than a presigned URL, which would expire while cached.
+ */
+public record ProductSnapshot(
+        Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stock,
+        String category,
+        String imageKey) implements Serializable {
+}
@@ -0,0 +1,19 @@
+package com.novus.ecommerce.dto.entity;
+
+import com.novus.ecommerce.entity.ERole;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * What a refresh token entitles its holder to, read in one query and cached by token digest.
+ * {@link #INVALID} stands in for unknown and revoked tokens so repeated misses stay off the database.
+ */
+public record RefreshTokenGrant(String email, ERole role, Date expiryDate) implements Serializable {
+
+    public static final RefreshTokenGrant INVALID = new RefreshTokenGrant(null, null, new Date(0));
+
+    public boolean isValid() {
+        return email != null && expiryDate.after(new Date());
+    }
+}
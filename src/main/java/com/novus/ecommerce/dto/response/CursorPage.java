@@ -0,0 +1,6 @@
+package com.novus.ecommerce.dto.response;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, String nextCursor, Long totalData) {
+}
@@ -0,0 +1,13 @@
+package com.novus.ecommerce.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code processed} counts every data row read and {@code failed} every rejected
+ * row, while {@code errors} only lists the first rejections up to the configured cap.
+ */
+public record ImportResult(long processed, long created, long updated, long failed, List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.novus.ecommerce.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of the NDJSON order-history export.
+ */
+public record OrderExportRecord(Long id, LocalDateTime createdAt, String status, BigDecimal totalPrice,
+                                List<Line> items) {
+
+    public record Line(Long productId, String productName, String category, Integer quantity, BigDecimal price) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.novus.ecommerce.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public record ProductFacets(Map<String, Long> categories, List<PriceBucket> priceBuckets) {
+
+    public record PriceBucket(BigDecimal from, BigDecimal to, long count) {
+    }
+}
@@ -22,4 +22,6 @@ public class Response<T> {
     private Integer pageSize;
     private Integer totalPage;
     private Long totalData;
+    private String nextCursor;
+    private ProductFacets facets;
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.novus.ecommerce.dto.response;
+
+public record SuggestionResponse(String text, String type) {
+}
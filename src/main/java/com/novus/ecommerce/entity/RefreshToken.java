@@ -13,20 +13,26 @@ import java.util.Date;
 @AllArgsConstructor
 @Builder
 @Entity
+// The expiry_date index for the purge job is built concurrently by SchemaMigrations, not by ddl-auto
+@Table(name = "refresh_token")
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+    @SequenceGenerator(name = "refresh_token_seq", sequenceName = "refresh_token_seq", allocationSize = 50)
     private long id;
 
-    @Column(unique = true, nullable = false)
-    private String token;
+    // SHA-256 of the token handed to the client; the token itself is never stored.
+    // Nullable until db/manual/refresh_token_drop_raw_token.sql: ddl-auto cannot add a NOT NULL
+    // column to a table that has rows, and nodes of the previous release insert without it
+    @Column(name = "token_hash", unique = true, length = 32)
+    private byte[] tokenHash;
 
     @OneToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true, nullable = false)
     private User user;
 
-    @Column(nullable = false, updatable = false)
+    @Column(nullable = false)
     private Date expiryDate;
 
 }
@@ -2,6 +2,7 @@ package com.novus.ecommerce.exception;
 
 import com.novus.ecommerce.dto.response.Response;
 import com.novus.ecommerce.exception.custom.EntityNotFoundException;
+import com.novus.ecommerce.exception.custom.InsufficientStockException;
 import com.novus.ecommerce.exception.custom.UserAlreadyExistException;
 import com.novus.ecommerce.exception.custom.UserNotEnabledException;
 import io.jsonwebtoken.JwtException;
@@ -89,6 +90,13 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.CONFLICT.value(),  HttpStatus.CONFLICT.getReasonPhrase(), errors);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Response<Object> handleInsufficientStockException(InsufficientStockException e) {
+        log.warn("InsufficientStockException handled: {}", e.getMessage());
+        return buildResponse(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.getReasonPhrase(), e.getFailedLines());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Response<Object> handleException(Exception e) {
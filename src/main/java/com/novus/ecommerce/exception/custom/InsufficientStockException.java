@@ -0,0 +1,16 @@
+package com.novus.ecommerce.exception.custom;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<String> failedLines;
+
+    public InsufficientStockException(List<String> failedLines) {
+        super("Insufficient stock for " + failedLines.size() + " item(s)");
+        this.failedLines = failedLines;
+    }
+}
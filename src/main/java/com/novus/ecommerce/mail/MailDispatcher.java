@@ -0,0 +1,237 @@
+package com.novus.ecommerce.mail;
+
+import com.novus.ecommerce.config.MailQueueProperties;
+import com.novus.ecommerce.entity.OutboundEmail;
+import com.novus.ecommerce.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbound_emails outbox. Each poll claims at most one round of work for the worker
+ * pool, hands every worker a batch that goes out over a single SMTP session, and waits for the
+ * round to finish before claiming more, so a registration burst only grows the table.
+ * <p>
+ * Claimed rows are leased by pushing {@code next_attempt_at} forward; if a node dies mid-send
+ * its rows become due again once the lease runs out.
+ */
+@Slf4j
+public class MailDispatcher implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository repository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MailQueueProperties properties;
+    private final MailRateLimiter rateLimiter;
+    private final ScheduledExecutorService poller;
+    private final ExecutorService workers;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer sessionTimer;
+
+    public MailDispatcher(OutboundEmailRepository repository, JavaMailSender mailSender,
+                          TransactionTemplate transactionTemplate, MailQueueProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.rateLimiter = new MailRateLimiter(properties.ratePerSecond());
+
+        Gauge.builder("mail.queue.depth", pending, AtomicLong::get)
+                .description("Mails waiting for delivery, including ones waiting out a retry backoff")
+                .tag("status", "pending")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.depth", failed, AtomicLong::get)
+                .description("Mails that ran out of delivery attempts")
+                .tag("status", "failed")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.failed").register(meterRegistry);
+        this.sessionTimer = Timer.builder("mail.session")
+                .description("Time to deliver one batch over a single SMTP session")
+                .register(meterRegistry);
+
+        this.workers = Executors.newFixedThreadPool(properties.workers(),
+                Thread.ofPlatform().name("mail-worker-", 0).daemon().factory());
+        this.poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("mail-dispatcher").daemon().factory());
+        long interval = properties.pollInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void drain() {
+        try {
+            List<OutboundEmail> claimed;
+            while (!(claimed = claim()).isEmpty()) {
+                log.debug("Claimed {} mail(s) for delivery", claimed.size());
+                List<CompletableFuture<Void>> sessions = new ArrayList<>();
+                for (int from = 0; from < claimed.size(); from += properties.messagesPerSession()) {
+                    List<OutboundEmail> batch = claimed.subList(from,
+                            Math.min(from + properties.messagesPerSession(), claimed.size()));
+                    sessions.add(CompletableFuture.runAsync(() -> deliver(batch), workers));
+                }
+                CompletableFuture.allOf(sessions.toArray(CompletableFuture[]::new)).join();
+            }
+            pending.set(repository.countByStatus(OutboundEmail.Status.PENDING));
+            failed.set(repository.countByStatus(OutboundEmail.Status.FAILED));
+        } catch (RuntimeException e) {
+            log.error("Mail dispatch round failed", e);
+        }
+    }
+
+    private List<OutboundEmail> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboundEmail> due = repository.lockDue(now, properties.workers() * properties.messagesPerSession());
+            LocalDateTime leaseUntil = now.plus(properties.lease());
+            for (OutboundEmail email : due) {
+                email.setAttempts(email.getAttempts() + 1);
+                email.setNextAttemptAt(leaseUntil);
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<OutboundEmail> batch) {
+        Map<MimeMessage, OutboundEmail> messages = new LinkedHashMap<>();
+        for (OutboundEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                // A message that cannot be built will not build on retry either
+                giveUp(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            rateLimiter.acquire(messages.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty()
+                    ? failAll(messages, e)
+                    : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = failAll(messages, e);
+        } finally {
+            sessionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, OutboundEmail> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                retryOrGiveUp(entry.getValue(), failure);
+            }
+        }
+        if (!sent.isEmpty()) {
+            repository.markSent(sent, LocalDateTime.now());
+            sentCounter.increment(sent.size());
+        }
+        log.debug("SMTP session delivered {} of {} mail(s)", sent.size(), messages.size());
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, email.isHtml());
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return mimeMessage;
+    }
+
+    private void retryOrGiveUp(OutboundEmail email, Exception failure) {
+        if (email.getAttempts() >= properties.maxAttempts()) {
+            giveUp(email, failure);
+            return;
+        }
+        Duration backoff = backoff(email.getAttempts());
+        log.warn("Mail {} to {} failed on attempt {}, retrying in {}: {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), backoff, failure.getMessage());
+        repository.markFailed(email.getId(), OutboundEmail.Status.PENDING, LocalDateTime.now().plus(backoff),
+                truncate(failure.getMessage()));
+        retriedCounter.increment();
+    }
+
+    private void giveUp(OutboundEmail email, Exception failure) {
+        log.error("Giving up on mail {} to {} after {} attempt(s): {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), failure.getMessage());
+        repository.markFailed(email.getId(), OutboundEmail.Status.FAILED, email.getNextAttemptAt(),
+                truncate(failure.getMessage()));
+        failedCounter.increment();
+    }
+
+    /**
+     * Doubles from {@code initialBackoff} with every attempt, capped at {@code maxBackoff}.
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.initialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : backoff;
+    }
+
+    private static Map<Object, Exception> failAll(Map<MimeMessage, OutboundEmail> messages, Exception e) {
+        Map<Object, Exception> failures = new HashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        poller.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.novus.ecommerce.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces sends evenly at a fixed rate. Callers reserve permits up front and sleep until their
+ * slot, so concurrent sessions share one budget instead of each getting their own.
+ */
+class MailRateLimiter {
+
+    private final long nanosPerPermit;
+    private long nextFreeAt = System.nanoTime();
+
+    MailRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Mail rate must be positive, got " + permitsPerSecond);
+        }
+        this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    void acquire(int permits) throws InterruptedException {
+        long slot;
+        synchronized (this) {
+            slot = Math.max(nextFreeAt, System.nanoTime());
+            nextFreeAt = slot + permits * nanosPerPermit;
+        }
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.novus.ecommerce.mail;
+
+import lombok.Getter;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mail template parsed once into literal and {@code {{placeholder}}} segments. Rendering walks the
+ * segments and appends into a single builder sized for the literal text, with no re-scanning of
+ * the source. Values are HTML-escaped for HTML templates.
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int VALUE_ALLOWANCE = 256;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final Locale locale;
+    @Getter
+    private final boolean html;
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private MailTemplate(String name, Locale locale, boolean html, List<String> literals, List<String> placeholders) {
+        this.name = name;
+        this.locale = locale;
+        this.html = html;
+        this.literals = literals.toArray(String[]::new);
+        this.placeholders = placeholders.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Splits {@code source} so that {@code literals[i]} is followed by {@code placeholders[i]}, with
+     * one trailing literal after the last placeholder.
+     */
+    public static MailTemplate compile(String name, Locale locale, boolean html, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed placeholder in mail template " + name + " at offset " + open);
+            }
+            String placeholder = source.substring(open + OPEN.length(), close).trim();
+            if (placeholder.isEmpty()) {
+                throw new IllegalStateException("Empty placeholder in mail template " + name + " at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(placeholder);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new MailTemplate(name, locale, html, literals, placeholders);
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(literalLength + placeholders.length * VALUE_ALLOWANCE);
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(placeholders[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for placeholder " + placeholders[i]
+                        + " in mail template " + name);
+            }
+            out.append(html ? HtmlUtils.htmlEscape(value.toString()) : value.toString());
+        }
+        out.append(literals[placeholders.length]);
+    }
+
+    public Set<String> getPlaceholders() {
+        return new LinkedHashSet<>(List.of(placeholders));
+    }
+}
@@ -0,0 +1,72 @@
+package com.novus.ecommerce.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles every mail template under {@code classpath:templates/} once at startup. Files are named
+ * {@code <name>[_<locale>].html} or {@code .txt}, e.g. {@code verification-email_de.html}, and a
+ * lookup falls back from the full locale to its language and then to the default file.
+ */
+@Component
+@Slf4j
+public class MailTemplateRegistry {
+
+    private static final String LOCATION = "classpath*:templates/*.*";
+
+    private final Map<String, MailTemplate> templates = new HashMap<>();
+
+    public MailTemplateRegistry(ResourcePatternResolver resourceResolver) throws IOException {
+        for (Resource resource : resourceResolver.getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            boolean html = filename.endsWith(".html");
+            if (!html && !filename.endsWith(".txt")) {
+                continue;
+            }
+            String baseName = filename.substring(0, filename.lastIndexOf('.'));
+            int separator = baseName.indexOf('_');
+            String name = separator < 0 ? baseName : baseName.substring(0, separator);
+            Locale locale = separator < 0
+                    ? Locale.ROOT
+                    : Locale.forLanguageTag(baseName.substring(separator + 1).replace('_', '-'));
+
+            String source = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+            MailTemplate template = MailTemplate.compile(name, locale, html, source);
+            templates.put(key(name, locale), template);
+            log.debug("Compiled mail template {} for locale '{}' with placeholders {}", name, locale,
+                    template.getPlaceholders());
+        }
+        log.info("Loaded {} mail template(s)", templates.size());
+    }
+
+    public MailTemplate get(String name, Locale locale) {
+        Locale requested = locale == null ? Locale.ROOT : locale;
+        MailTemplate template = templates.get(key(name, requested));
+        if (template == null && !requested.getCountry().isEmpty()) {
+            template = templates.get(key(name, Locale.of(requested.getLanguage())));
+        }
+        if (template == null) {
+            template = templates.get(key(name, Locale.ROOT));
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No mail template named " + name);
+        }
+        return template;
+    }
+
+    private static String key(String name, Locale locale) {
+        return locale.toLanguageTag().equals("und") ? name : name + "_" + locale.toLanguageTag();
+    }
+}
@@ -0,0 +1,71 @@
+package com.novus.ecommerce.mail;
+
+import com.novus.ecommerce.config.MailQueueProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Deletes sent and failed outbox rows once they are past {@code app.mail.queue.retention}, in the
+ * same short lock-skipping batches as the refresh token purge. Runs on every node, whether or not
+ * it delivers mail.
+ */
+@Component
+@Slf4j
+public class OutboxPurger {
+
+    private static final String PURGE_SQL = """
+            DELETE FROM outbound_emails WHERE id IN (
+                SELECT id FROM outbound_emails
+                WHERE status IN ('SENT', 'FAILED') AND created_at < ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_BATCHES_PER_RUN = 100;
+    private static final long BATCH_PAUSE_MILLIS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MailQueueProperties properties;
+    private final Counter purgedCounter;
+
+    public OutboxPurger(JdbcTemplate jdbcTemplate, MailQueueProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.purgedCounter = Counter.builder("mail.purged")
+                .description("Sent and failed mails deleted after the retention period")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.queue.purge-interval:1h}",
+            fixedDelayString = "${app.mail.queue.purge-interval:1h}")
+    long purge() {
+        long purged = 0;
+        try {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(properties.retention()));
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                int deleted = jdbcTemplate.update(PURGE_SQL, cutoff, BATCH_SIZE);
+                purged += deleted;
+                purgedCounter.increment(deleted);
+                if (deleted < BATCH_SIZE) {
+                    break;
+                }
+                Thread.sleep(BATCH_PAUSE_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Outbox purge failed after {} row(s)", purged, e);
+        }
+        if (purged > 0) {
+            log.info("Purged {} sent or failed mail(s) older than {}", purged, properties.retention());
+        }
+        return purged;
+    }
+}
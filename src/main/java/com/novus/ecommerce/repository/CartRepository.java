@@ -1,10 +1,14 @@
 package com.novus.ecommerce.repository;
 
 import com.novus.ecommerce.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = {"items", "items.product", "items.product.category"})
+    Optional<Cart> findWithItemsByUserId(Long userId);
 }
@@ -0,0 +1,12 @@
+package com.novus.ecommerce.repository;
+
+import com.novus.ecommerce.entity.OrderLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderLineRepository extends JpaRepository<OrderLine, Long> {
+
+    List<OrderLine> findByOrderIdInOrderById(Collection<Long> orderIds);
+}
@@ -1,11 +1,53 @@
 package com.novus.ecommerce.repository;
 
 import com.novus.ecommerce.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    Optional<List<Order>> findByUserId(Long userId);
+
+    interface OrderExportLine {
+        Long getOrderId();
+        LocalDateTime getCreatedAt();
+        String getStatus();
+        BigDecimal getTotalPrice();
+        Long getProductId();
+        String getProductName();
+        String getCategory();
+        Integer getQuantity();
+        BigDecimal getPrice();
+    }
+
+    Window<Order> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "lines")
+    Optional<Order> findWithLinesById(Long id);
+
+    @Query("""
+            SELECT o.id AS orderId, o.createdAt AS createdAt, o.status AS status, o.totalPrice AS totalPrice,
+                   l.productId AS productId, l.productName AS productName, l.category AS category,
+                   l.quantity AS quantity, l.price AS price
+            FROM OrderLine l JOIN l.order o
+            WHERE o.user.id = :userId
+            ORDER BY o.createdAt DESC, o.id DESC, l.id
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderExportLine> streamExportLinesByUserId(@Param("userId") Long userId);
 }
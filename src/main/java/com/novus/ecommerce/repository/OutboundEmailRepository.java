@@ -0,0 +1,47 @@
+package com.novus.ecommerce.repository;
+
+import com.novus.ecommerce.entity.OutboundEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Locks due mails that no other dispatcher holds, so several nodes can drain the queue together.
+     */
+    @Query(value = """
+            SELECT * FROM outbound_emails
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboundEmail> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboundEmail e SET e.status = com.novus.ecommerce.entity.OutboundEmail.Status.SENT,
+                   e.sentAt = :sentAt, e.lastError = null
+            WHERE e.id IN :ids
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboundEmail e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error
+            WHERE e.id = :id
+            """)
+    int markFailed(@Param("id") Long id, @Param("status") OutboundEmail.Status status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+}
@@ -0,0 +1,20 @@
+package com.novus.ecommerce.repository;
+
+import com.novus.ecommerce.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProductFacetRepository {
+
+    record FacetRow(String category, int bucket, long count) {
+    }
+
+    /**
+     * Counts products matching {@code spec} grouped by category name and price bucket in a single query.
+     * Bucket {@code i} holds prices from {@code boundaries[i]} up to {@code boundaries[i + 1]}; the last
+     * bucket is open-ended. Rows without a price or below {@code boundaries[0]} get bucket {@code -1}.
+     */
+    List<FacetRow> countFacets(Specification<Product> spec, List<BigDecimal> boundaries);
+}
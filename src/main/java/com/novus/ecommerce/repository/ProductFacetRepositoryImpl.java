@@ -0,0 +1,53 @@
+package com.novus.ecommerce.repository;
+
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    private static final int NO_BUCKET = -1;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<FacetRow> countFacets(Specification<Product> spec, List<BigDecimal> boundaries) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        Expression<String> categoryName = category.get("name");
+        Expression<Integer> bucket = priceBucket(cb, root.get("price"), boundaries);
+
+        query.multiselect(categoryName, bucket, cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(categoryName, bucket);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new FacetRow(row.get(0, String.class), row.get(1, Integer.class), row.get(2, Long.class)))
+                .toList();
+    }
+
+    // Literals rather than bound parameters, so the CASE renders identically in SELECT and GROUP BY
+    private Expression<Integer> priceBucket(CriteriaBuilder cb, Expression<BigDecimal> price, List<BigDecimal> boundaries) {
+        CriteriaBuilder.Case<Integer> bucket = cb.<Integer>selectCase()
+                .when(cb.isNull(price), cb.literal(NO_BUCKET))
+                .when(cb.lessThan(price, cb.literal(boundaries.getFirst())), cb.literal(NO_BUCKET));
+        for (int i = 1; i < boundaries.size(); i++) {
+            bucket = bucket.when(cb.lessThan(price, cb.literal(boundaries.get(i))), cb.literal(i - 1));
+        }
+        return bucket.otherwise(cb.literal(boundaries.size() - 1));
+    }
+}
@@ -1,10 +1,68 @@
 package com.novus.ecommerce.repository;
 
+import com.novus.ecommerce.dto.entity.ProductSnapshot;
 import com.novus.ecommerce.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFacetRepository {
+
+    interface IdAndName {
+        Long getId();
+        String getName();
+    }
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    interface SuggestionCandidate {
+        Long getId();
+        String getName();
+        String getCategory();
+        Long getSold();
+    }
+
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p WHERE p.id IN :ids")
+    List<IdAndName> findNamesByIdIn(Collection<Long> ids);
+
+    /**
+     * Every product with the units sold across all orders, for ranking typeahead suggestions.
+     */
+    @Query("""
+            SELECT p.id AS id, p.name AS name, c.name AS category, coalesce(sum(ol.quantity), 0L) AS sold
+            FROM Product p
+            LEFT JOIN p.category c
+            LEFT JOIN OrderLine ol ON ol.productId = p.id
+            GROUP BY p.id, p.name, c.name
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<SuggestionCandidate> streamSuggestionCandidates();
+
+    @Query("""
+            SELECT new com.novus.ecommerce.dto.entity.ProductSnapshot(
+                p.id, p.name, p.description, p.price, p.stock, c.name, p.imageUrl)
+            FROM Product p LEFT JOIN p.category c
+            ORDER BY p.id
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductSnapshot> streamAllSnapshots();
 }
@@ -1,19 +1,29 @@
 package com.novus.ecommerce.repository;
 
+import com.novus.ecommerce.dto.entity.RefreshTokenGrant;
 import com.novus.ecommerce.entity.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
     Optional<RefreshToken> findByUserId(Long userId);
 
+    @Query("""
+            SELECT new com.novus.ecommerce.dto.entity.RefreshTokenGrant(u.email, r.roleName, rt.expiryDate)
+            FROM RefreshToken rt JOIN rt.user u JOIN u.role r
+            WHERE rt.tokenHash = :tokenHash
+            """)
+    Optional<RefreshTokenGrant> findGrantByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.token = ?2 WHERE rt.user.id = ?1")
-    void updateByUserId(Long id, String token);
+    @Query("UPDATE RefreshToken rt SET rt.tokenHash = ?2, rt.expiryDate = ?3 WHERE rt.user.id = ?1")
+    int updateByUserId(Long id, byte[] tokenHash, Date expiryDate);
 }
@@ -0,0 +1,99 @@
+package com.novus.ecommerce.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.novus.ecommerce.cache.CacheInvalidationBus;
+import com.novus.ecommerce.utils.crypto.Digests;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens revoked by logout before they expire, keyed by the SHA-256 digest of the token.
+ * Revocations are broadcast so every node rejects the token, and each entry is dropped once the
+ * token would have expired anyway.
+ * <p>
+ * The list lives in memory only: a node that was down when a token was revoked accepts it until it
+ * expires, i.e. for at most {@code jwt.access_token_expiration}.
+ */
+@Component
+@Slf4j
+public class AccessTokenDenylist {
+
+    static final String CHANNEL = "revoked_access_tokens";
+
+    private final Cache<String, Long> revoked;
+    private final CacheInvalidationBus invalidationBus;
+    private final JwtUtils jwtUtils;
+
+    public AccessTokenDenylist(CacheInvalidationBus invalidationBus, JwtUtils jwtUtils,
+                               @Value("${jwt.denylist.max_size:100000}") long maxSize) {
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(untilExpiry())
+                .maximumSize(maxSize)
+                .build();
+        this.invalidationBus = invalidationBus;
+        this.jwtUtils = jwtUtils;
+        invalidationBus.subscribe((channel, key) -> {
+            if (CHANNEL.equals(channel) && key != null) {
+                // digest:expiresAtMillis
+                int separator = key.indexOf(':');
+                revoked.put(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+            }
+        });
+    }
+
+    /**
+     * Whether no token is revoked right now, in which case callers can skip hashing the token at all.
+     */
+    public boolean isEmpty() {
+        return revoked.estimatedSize() == 0;
+    }
+
+    /**
+     * @param digest {@link Digests#sha256Hex} of the token
+     */
+    public boolean isRevoked(String digest) {
+        return !isEmpty() && revoked.getIfPresent(digest) != null;
+    }
+
+    /**
+     * Rejects the token on every node until it expires. Tokens that no longer verify are ignored,
+     * the filter rejects them already.
+     */
+    public void revoke(String token) {
+        long expiresAt;
+        try {
+            expiresAt = jwtUtils.verify(token).expiration().getTime();
+        } catch (JwtException e) {
+            return;
+        }
+        String digest = Digests.sha256Hex(token);
+        revoked.put(digest, expiresAt);
+        invalidationBus.publish(CHANNEL, digest + ":" + expiresAt);
+        log.debug("Access token revoked until {}", expiresAt);
+    }
+
+    private static Expiry<String, Long> untilExpiry() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, Long expiresAt, long currentTime) {
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Long expiresAt, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, expiresAt, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, Long expiresAt, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
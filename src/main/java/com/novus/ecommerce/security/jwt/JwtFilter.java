@@ -1,5 +1,6 @@
 package com.novus.ecommerce.security.jwt;
 
+import com.novus.ecommerce.utils.crypto.Digests;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -25,18 +26,27 @@ import java.util.Set;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AccessTokenDenylist accessTokenDenylist;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
         try {
             String token = parseToken(request);
-            if (token != null) {
+            // Hashed once per request, and only if the denylist or the verified cache will look it up
+            String digest = token != null && (verifiedTokenCache.isEnabled() || !accessTokenDenylist.isEmpty())
+                    ? Digests.sha256Hex(token)
+                    : null;
+            if (digest != null && accessTokenDenylist.isRevoked(digest)) {
+                log.debug("Revoked JWT presented on request to {} {}", request.getMethod(), request.getRequestURI());
+                request.setAttribute("jwt_error", "Token has been revoked");
+            } else if (token != null) {
                 log.debug("JWT token detected on request to {} {}", request.getMethod(), request.getRequestURI());
-                jwtUtils.validateToken(token);
+                VerifiedToken verified = verifiedTokenCache.get(token, digest, jwtUtils::verify);
 
-                String username = jwtUtils.extractUsername(token);
-                Set<SimpleGrantedAuthority> authorities = jwtUtils.extractRole(token);
+                String username = verified.username();
+                Set<SimpleGrantedAuthority> authorities = verified.authorities();
                 log.debug("JWT validated for username={} with authorities={}", username, authorities);
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
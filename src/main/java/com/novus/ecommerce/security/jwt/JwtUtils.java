@@ -1,22 +1,20 @@
 package com.novus.ecommerce.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.*;
-import java.util.function.Function;
+import java.util.Date;
 
 @Component
 @Slf4j
@@ -28,6 +26,24 @@ public class JwtUtils {
     @Value("${jwt.access_token_expiration}")
     private long accessTokenExpiration;
 
+    private SecretKey secretKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        init(secret, accessTokenExpiration);
+    }
+
+    /**
+     * Derives the signing key and builds the parser once; also the entry point for wiring by hand.
+     */
+    void init(String secret, long accessTokenExpiration) {
+        this.secret = secret;
+        this.accessTokenExpiration = accessTokenExpiration;
+        secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser().verifyWith(secretKey).build();
+    }
+
     public String generateToken(UserDetails userDetails) {
         String role = null;
         if (userDetails.getAuthorities().stream().findFirst().isPresent()) {
@@ -38,13 +54,17 @@ public class JwtUtils {
                     .getAuthority();
         }
 
-        log.debug("Generating JWT token for username={} with role={}", userDetails.getUsername(), role);
+        return generateToken(userDetails.getUsername(), role);
+    }
+
+    public String generateToken(String username, String role) {
+        log.debug("Generating JWT token for username={} with role={}", username, role);
         return Jwts.builder()
-                .subject(userDetails.getUsername())
+                .subject(username)
                 .claim("role", role)
                 .issuedAt(new Date())
                 .expiration(Date.from(Instant.now().plus(Duration.ofMillis(accessTokenExpiration))))
-                .signWith(getSecretKey())
+                .signWith(secretKey)
                 .compact();
     }
 
@@ -55,44 +75,23 @@ public class JwtUtils {
                 .claim("purpose", "email_verification")
                 .issuedAt(new Date())
                 .expiration(Date.from(Instant.now().plus(Duration.ofMillis(accessTokenExpiration))))
-                .signWith(getSecretKey())
+                .signWith(secretKey)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Set<SimpleGrantedAuthority> extractRole(String token) {
-        Object res = extractAllClaims(token).get("role");
-
-        return Collections.singleton(new SimpleGrantedAuthority((String) res));
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
+    /**
+     * Verifies the signature and returns every claim, for tokens that carry more than an access token.
+     */
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith((SecretKey) getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    public void validateToken(String token) {
-        log.trace("Validating JWT token");
-        Jwts
-                .parser()
-                .verifyWith((SecretKey) getSecretKey())
-                .build()
-                .parse(token);
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Key getSecretKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    /**
+     * Verifies the signature once and returns everything the request filter needs.
+     */
+    public VerifiedToken verify(String token) {
+        log.trace("Verifying JWT token");
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(claims.getSubject(), claims.get("role", String.class), claims.getExpiration());
     }
 }
@@ -0,0 +1,71 @@
+package com.novus.ecommerce.security.jwt;
+
+import com.novus.ecommerce.cache.CacheInvalidationBus;
+import com.novus.ecommerce.dto.entity.RefreshTokenGrant;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of refresh token lookups keyed by the SHA-256 digest of the token. Valid and
+ * invalid results are both cached; revocations are broadcast so other nodes drop their copy
+ * instead of waiting for the entry to expire.
+ */
+@Component
+public class RefreshTokenCache {
+
+    public static final String CACHE_NAME = "refresh_tokens";
+
+    private final Cache cache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public RefreshTokenCache(CacheManager cacheManager, CacheInvalidationBus invalidationBus) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe((cacheName, key) -> {
+            if (CACHE_NAME.equals(cacheName)) {
+                if (key == null) {
+                    cache.clear();
+                } else {
+                    cache.evict(key);
+                }
+            }
+        });
+    }
+
+    public RefreshTokenGrant get(byte[] tokenHash, Supplier<RefreshTokenGrant> loader) {
+        return cache.get(key(tokenHash), loader::get);
+    }
+
+    /**
+     * Marks the token invalid on this node and evicts it everywhere else, once the surrounding
+     * transaction (if any) has committed the revocation.
+     */
+    public void revoke(byte[] tokenHash) {
+        String key = key(tokenHash);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokeNow(key);
+                }
+            });
+        } else {
+            revokeNow(key);
+        }
+    }
+
+    private static String key(byte[] tokenHash) {
+        return HexFormat.of().formatHex(tokenHash);
+    }
+
+    private void revokeNow(String key) {
+        cache.put(key, RefreshTokenGrant.INVALID);
+        invalidationBus.publish(CACHE_NAME, key);
+    }
+}
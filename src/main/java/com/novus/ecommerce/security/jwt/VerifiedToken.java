@@ -0,0 +1,14 @@
+package com.novus.ecommerce.security.jwt;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+public record VerifiedToken(String username, String role, Date expiration) {
+
+    public Set<SimpleGrantedAuthority> authorities() {
+        return Collections.singleton(new SimpleGrantedAuthority(role));
+    }
+}
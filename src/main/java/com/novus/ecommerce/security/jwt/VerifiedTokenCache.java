@@ -0,0 +1,60 @@
+package com.novus.ecommerce.security.jwt;
+
+import com.novus.ecommerce.utils.crypto.Digests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Remembers access tokens whose signature has already been checked, keyed by the
+ * SHA-256 digest of the token so raw tokens never sit in memory. Entries expire
+ * with the token itself (see {@code CacheConfig}).
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "verified_tokens";
+
+    private final Cache cache;
+
+    public VerifiedTokenCache(CacheManager cacheManager,
+                              @Value("${jwt.verified_cache.enabled:false}") boolean enabled) {
+        this.cache = enabled ? cacheManager.getCache(CACHE_NAME) : null;
+        log.info("Verified token cache {}", enabled ? "enabled" : "disabled");
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * @param digest {@link Digests#sha256Hex} of the token, computed once by the caller; only read
+     *               when the cache is enabled
+     */
+    public VerifiedToken get(String token, String digest, Function<String, VerifiedToken> verifier) {
+        if (cache == null) {
+            return verifier.apply(token);
+        }
+
+        VerifiedToken cached = cache.get(digest, VerifiedToken.class);
+        if (cached != null && cached.expiration().after(new Date())) {
+            return cached;
+        }
+
+        VerifiedToken verified = verifier.apply(token);
+        cache.put(digest, verified);
+        return verified;
+    }
+
+    public void invalidate(String token) {
+        if (cache != null && token != null) {
+            cache.evict(Digests.sha256Hex(token));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.novus.ecommerce.service;
 
 import com.novus.ecommerce.dto.request.LoginRequest;
+import com.novus.ecommerce.dto.entity.RefreshTokenGrant;
 import com.novus.ecommerce.dto.request.RegisterRequest;
 import com.novus.ecommerce.dto.response.RegisterResponse;
 import com.novus.ecommerce.dto.response.Response;
@@ -24,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,7 +33,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.WebUtils;
@@ -58,7 +59,6 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final ApplicationEventPublisher eventPublisher;
     private final TokenService tokenService;
-    private final UserDetailsService userDetailsService;
     private final CartRepository cartRepository;
 
     public List<ResponseCookie> login(LoginRequest loginRequest) {
@@ -132,7 +132,8 @@ public class AuthService {
 
         userRepository.save(user);
         log.info("User persisted with email={} and role={}", user.getEmail(), role.getRoleName());
-        eventPublisher.publishEvent(new UserRegistrationEvent(registerRequest.getEmail()));
+        eventPublisher.publishEvent(new UserRegistrationEvent(registerRequest.getEmail(),
+                LocaleContextHolder.getLocale()));
         log.info("UserRegistrationEvent published for email={}", registerRequest.getEmail());
 
         RegisterResponse response = RegisterResponse.builder()
@@ -158,21 +159,17 @@ public class AuthService {
             throw new BadRequestException("Refresh-Token is required");
         }
 
-        if (tokenService.validateToken(refreshTokenValue)) {
-            String email = tokenService.getUserId(refreshTokenValue);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        RefreshTokenGrant grant = tokenService.validateToken(refreshTokenValue).orElseThrow(
+                () -> new IllegalArgumentException("Invalid token"));
 
-            String accessToken = jwtUtils.generateToken(userDetails);
+        String accessToken = jwtUtils.generateToken(grant.email(), grant.role().name());
 
-            return ResponseCookie.from("Access-Token", accessToken)
-                    .httpOnly(true)
-                    .secure(false)
-                    .maxAge(accessTokenExpiration / 1000)
-                    .path("/")
-                    .build();
-        }
-
-        throw new IllegalArgumentException("Invalid token");
+        return ResponseCookie.from("Access-Token", accessToken)
+                .httpOnly(true)
+                .secure(false)
+                .maxAge(accessTokenExpiration / 1000)
+                .path("/")
+                .build();
     }
 
 }
\ No newline at end of file
@@ -31,7 +31,7 @@ public class CartService {
 
     public Cart getCart(Long userId) {
         log.debug("Fetching cart for userId={}", userId);
-        return cartRepository.findByUserId(userId).orElseThrow(
+        return cartRepository.findWithItemsByUserId(userId).orElseThrow(
                 () -> new EntityNotFoundException("Cart not found for user"));
     }
 
@@ -4,11 +4,14 @@ import com.novus.ecommerce.dto.entity.CategoryDto;
 import com.novus.ecommerce.entity.Category;
 import com.novus.ecommerce.exception.custom.EntityNotFoundException;
 import com.novus.ecommerce.repository.CategoryRepository;
+import com.novus.ecommerce.utils.event.CategoryCreatedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,6 +20,7 @@ import java.util.List;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.base-url}")
     private String baseUrl;
@@ -26,13 +30,14 @@ public class CategoryService {
                 () -> new EntityNotFoundException("Category with id " + id + " not found"));
     }
 
-    @Cacheable(value = "categories", key = "#name")
+    @Cacheable(value = "categories", key = "#name", sync = true)
     public Category findByName(String name) {
         return categoryRepository.findByName(name).orElseThrow(
                 () -> new EntityNotFoundException("Category with name " + name + " not found"));
     }
 
-    @Cacheable(value = "categories", key = "'all'")
+    @Cacheable(value = "categories", key = "'all'", sync = true)
+    @Transactional(readOnly = true)
     public List<Category> findAll() {
         return categoryRepository.findAll();
     }
@@ -40,6 +45,7 @@ public class CategoryService {
     @CacheEvict(value = "categories", allEntries = true)
     public void addCategory(Category category) {
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryCreatedEvent(category.getName()));
     }
 
     public CategoryDto mapToDto(Category category) {
@@ -0,0 +1,81 @@
+package com.novus.ecommerce.service;
+
+import com.novus.ecommerce.entity.Item;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.exception.custom.InsufficientStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reserves stock for checkout with conditional decrements instead of
+ * read-modify-write on the product row, so concurrent checkouts cannot oversell.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryService {
+
+    private static final String RESERVE_STOCK_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    /**
+     * Decrements stock for every line in one JDBC batch. Lines are applied in product id
+     * order so two checkouts touching the same products always lock rows in the same order.
+     * If any line cannot be satisfied the whole reservation is rolled back and every
+     * failing line is reported.
+     */
+    @Transactional
+    public void reserve(Collection<Item> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, String> names = new HashMap<>();
+
+        for (Item item : items) {
+            Product product = item.getProduct();
+            quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
+            names.putIfAbsent(product.getId(), product.getName());
+        }
+
+        List<Long> productIds = new ArrayList<>(quantities.keySet());
+        List<Object[]> batchArgs = productIds.stream()
+                .map(id -> new Object[]{quantities.get(id), id, quantities.get(id)})
+                .toList();
+
+        log.debug("Reserving stock for {} product(s)", productIds.size());
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_STOCK_SQL, batchArgs);
+
+        List<String> failedLines = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Long productId = productIds.get(i);
+                failedLines.add("Product " + names.get(productId) + " (id " + productId + ") quantity "
+                        + quantities.get(productId) + " exceeds stock");
+            }
+        }
+
+        if (!failedLines.isEmpty()) {
+            log.warn("Stock reservation failed for {} line(s): {}", failedLines.size(), failedLines);
+            throw new InsufficientStockException(failedLines);
+        }
+
+        Cache products = cacheManager.getCache("products");
+        if (products != null) {
+            productIds.forEach(products::evict);
+        }
+        log.debug("Stock reserved for products {}", productIds);
+    }
+}
@@ -1,39 +1,44 @@
 package com.novus.ecommerce.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.novus.ecommerce.entity.OutboundEmail;
+import com.novus.ecommerce.repository.OutboundEmailRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * Queues mail in the outbox. Queued mail commits or rolls back with the caller's transaction and
+ * is delivered asynchronously by the mail dispatcher.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MailService {
-    private final JavaMailSender mailSender;
-
-    public void sendSimpleMail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
+    private final OutboundEmailRepository outboundEmailRepository;
 
-        log.info("Sending simple email to={} subject={}", to, subject);
-        mailSender.send(message);
+    @Transactional
+    public void queueSimpleMail(String to, String subject, String text) {
+        log.info("Queueing simple email to={} subject={}", to, subject);
+        queue(to, subject, text, false);
     }
 
-    public void sendHtmlMail(String to, String subject, String text) throws MessagingException {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
-
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(text, true);
+    @Transactional
+    public void queueHtmlMail(String to, String subject, String text) {
+        log.info("Queueing HTML email to={} subject={}", to, subject);
+        queue(to, subject, text, true);
+    }
 
-        log.info("Sending HTML email to={} subject={}", to, subject);
-        mailSender.send(mimeMessage);
+    private void queue(String to, String subject, String body, boolean html) {
+        outboundEmailRepository.save(OutboundEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .html(html)
+                .status(OutboundEmail.Status.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
     }
 }
@@ -1,21 +1,44 @@
 package com.novus.ecommerce.service;
 
+import com.novus.ecommerce.datasource.ReadYourWrites;
+import com.novus.ecommerce.dto.entity.ItemDto;
 import com.novus.ecommerce.dto.entity.OrderDto;
-import com.novus.ecommerce.dto.entity.ProductDto;
+import com.novus.ecommerce.dto.entity.ProductSnapshot;
+import com.novus.ecommerce.dto.response.CursorPage;
+import com.novus.ecommerce.dto.response.OrderExportRecord;
 import com.novus.ecommerce.entity.*;
 import com.novus.ecommerce.exception.custom.EntityNotFoundException;
 import com.novus.ecommerce.repository.CartRepository;
+import com.novus.ecommerce.repository.OrderLineRepository;
 import com.novus.ecommerce.repository.OrderRepository;
-import jakarta.transaction.Transactional;
+import com.novus.ecommerce.repository.OrderRepository.OrderExportLine;
+import com.novus.ecommerce.utils.pagination.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,15 +46,22 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ItemService itemService;
+    private final OrderLineRepository orderLineRepository;
     private final CartRepository cartRepository;
     private final com.novus.ecommerce.repository.AddressRepository addressRepository;
+    private final InventoryService inventoryService;
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWrites readYourWrites;
+
+    private static final Sort HISTORY_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final String HISTORY_SCOPE = CursorCodec.scope("orders", HISTORY_SORT);
 
+    @Transactional(readOnly = true)
     public OrderDto getOrderById(Long orderId, User user) throws AccessDeniedException {
         log.debug("Fetching order {} for user {}", orderId, user.getEmail());
 
-        Order order = orderRepository.findById(orderId).orElseThrow(
+        Order order = orderRepository.findWithLinesById(orderId).orElseThrow(
                 () -> new EntityNotFoundException("Order not found with ID: " + orderId));
 
         if (!order.getUser().getId().equals(user.getId())) {
@@ -42,16 +72,81 @@ public class OrderService {
         return mapToDto(order);
     }
 
-    public List<Order> getOrders(Long userId) {
-        log.debug("Fetching all orders for userId={}", userId);
-        return orderRepository.findByUserId(userId).orElse(List.of());
+    /**
+     * Newest-first order history, one keyset page at a time. The page's lines come from the order line
+     * snapshot in a single query on its order id index, without touching the catalog tables.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> getOrders(Long userId, String cursor, int size) {
+        log.debug("Fetching orders for userId={} after cursor, size={}", userId, size);
+        KeysetScrollPosition position = CursorCodec.decode(cursor, HISTORY_SCOPE);
+        Window<Order> window = orderRepository.findByUserId(userId, position, HISTORY_SORT, Limit.of(size));
+
+        List<Long> orderIds = window.stream().map(Order::getId).toList();
+        Map<Long, List<OrderLine>> lines = orderIds.isEmpty()
+                ? Map.of()
+                : orderLineRepository.findByOrderIdInOrderById(orderIds).stream()
+                        .collect(Collectors.groupingBy(line -> line.getOrder().getId()));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? CursorCodec.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), HISTORY_SCOPE)
+                : null;
+
+        List<OrderDto> content = window.stream()
+                .map(order -> mapToDto(order, lines.getOrDefault(order.getId(), List.of())))
+                .toList();
+        log.debug("Fetched {} orders, hasNext={}", content.size(), window.hasNext());
+        return new CursorPage<>(content, nextCursor, null);
+    }
+
+    /**
+     * Writes the user's whole order history as NDJSON, one order per line. Lines are read from a
+     * scrolling projection and only the order currently being assembled is held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(Long userId, OutputStream output) throws IOException {
+        log.info("Exporting order history for userId={}", userId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = 0;
+
+        try (Stream<OrderExportLine> stream = orderRepository.streamExportLinesByUserId(userId)) {
+            Iterator<OrderExportLine> lines = stream.iterator();
+            OrderExportLine head = null;
+            List<OrderExportRecord.Line> items = new ArrayList<>();
+
+            while (lines.hasNext()) {
+                OrderExportLine line = lines.next();
+                if (head == null || !head.getOrderId().equals(line.getOrderId())) {
+                    if (head != null) {
+                        writeOrder(writer, head, items);
+                        count++;
+                    }
+                    head = line;
+                    items = new ArrayList<>();
+                }
+                items.add(new OrderExportRecord.Line(line.getProductId(), line.getProductName(), line.getCategory(),
+                        line.getQuantity(), line.getPrice()));
+            }
+            if (head != null) {
+                writeOrder(writer, head, items);
+                count++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} order(s) for userId={}", count, userId);
+    }
+
+    private void writeOrder(Writer writer, OrderExportLine head, List<OrderExportRecord.Line> items) throws IOException {
+        writer.write(objectMapper.writeValueAsString(new OrderExportRecord(head.getOrderId(), head.getCreatedAt(),
+                head.getStatus(), head.getTotalPrice(), items)));
+        writer.write('\n');
     }
 
     @Transactional
     public OrderDto checkout(User user, Long addressId) {
         log.info("Processing checkout for user: {}", user.getEmail());
 
-        Cart cart = cartRepository.findByUserId(user.getId()).orElseThrow(
+        Cart cart = cartRepository.findWithItemsByUserId(user.getId()).orElseThrow(
                 () -> new EntityNotFoundException("Cart not found for user: " + user.getEmail()));
 
         if (cart.getItems().isEmpty()) {
@@ -70,53 +165,66 @@ public class OrderService {
         order.setUser(user);
         order.setShippingAddress(address);
 
-        BigDecimal totalPrice = cart.getItems().stream()
-                .map(Item::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalPrice = calculateTotal(cart.getItems());
 
         order.setTotalPrice(totalPrice);
         order.setStatus("Pending");
         log.debug("Order total: {}", totalPrice);
 
-        Set<Item> orderItems = new java.util.HashSet<>();
-        cart.getItems().forEach(cartItem -> {
-            Product product = cartItem.getProduct();
-            if (product.getStock() < cartItem.getQuantity()) {
-                throw new IllegalArgumentException("Product " + product.getName() + " quantity exceeds stock");
-            }
-            productService.update(product.getId(),
-                    ProductDto.builder()
-                            .description(product.getDescription())
-                            .name(product.getName())
-                            .price(product.getPrice())
-                            .stock(product.getStock() - cartItem.getQuantity())
-                            .build());
-            Item orderItem = Item.builder()
-                    .product(cartItem.getProduct())
-                    .quantity(cartItem.getQuantity())
-                    .price(cartItem.getPrice())
-                    .order(order)
-                    .build();
-            orderItems.add(orderItem);
-        });
-
-        order.setItems(orderItems);
+        inventoryService.reserve(cart.getItems());
+
+        // Order lines are the only record of what was bought; items belong to carts only
+        List<OrderLine> orderLines = new ArrayList<>();
+        cart.getItems().forEach(cartItem -> orderLines.add(snapshot(order, cartItem)));
+        order.setLines(orderLines);
 
         orderRepository.save(order);
         cart.getItems().clear();
         cartRepository.save(cart);
+        readYourWrites.markWrite(user.getEmail());
 
         log.info("Order {} created successfully for user: {}, total: {}", order.getId(), user.getEmail(), totalPrice);
         return mapToDto(order);
     }
 
-    public OrderDto mapToDto(Order order) {
+    public static BigDecimal calculateTotal(Collection<Item> items) {
+        return items.stream()
+                .map(Item::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private OrderLine snapshot(Order order, Item cartItem) {
+        Product product = cartItem.getProduct();
+        return OrderLine.builder()
+                .order(order)
+                .productId(product.getId())
+                .productName(product.getName())
+                .category(product.getCategory() != null ? product.getCategory().getName() : null)
+                .imageKey(product.getImageUrl())
+                .unitPrice(cartItem.getPrice().divide(BigDecimal.valueOf(cartItem.getQuantity()), 2, RoundingMode.HALF_UP))
+                .quantity(cartItem.getQuantity())
+                .price(cartItem.getPrice())
+                .build();
+    }
+
+    private OrderDto mapToDto(Order order, List<OrderLine> lines) {
         OrderDto orderDto = new OrderDto();
         orderDto.setId(order.getId());
-        orderDto.setItems(order.getItems().stream().map(itemService::mapToDto).collect(Collectors.toSet()));
+        orderDto.setItems(lines.stream().map(line -> {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setProduct(productService.mapToDto(new ProductSnapshot(line.getProductId(), line.getProductName(),
+                    null, line.getUnitPrice(), null, line.getCategory(), line.getImageKey())));
+            itemDto.setQuantity(line.getQuantity());
+            itemDto.setPrice(line.getPrice());
+            return itemDto;
+        }).collect(Collectors.toSet()));
         orderDto.setTotalPrice(order.getTotalPrice());
         orderDto.setStatus(order.getStatus());
         orderDto.setCreatedAt(order.getCreatedAt());
         return orderDto;
     }
+
+    public OrderDto mapToDto(Order order) {
+        return mapToDto(order, order.getLines());
+    }
 }
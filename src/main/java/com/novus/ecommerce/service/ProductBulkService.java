@@ -0,0 +1,413 @@
+package com.novus.ecommerce.service;
+
+import com.novus.ecommerce.dto.entity.ProductDto;
+import com.novus.ecommerce.dto.entity.ProductSnapshot;
+import com.novus.ecommerce.dto.response.ImportResult;
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.repository.CategoryRepository;
+import com.novus.ecommerce.repository.ProductRepository;
+import com.novus.ecommerce.utils.csv.Csv;
+import com.novus.ecommerce.utils.event.ProductsChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streaming bulk import and export of the product catalog. Rows use the {@link ProductSnapshot} shape,
+ * with {@code imageKey} holding the S3 key, so an export can be fed straight back into an import.
+ * Imports are written in chunks, each in its own transaction, so memory stays bounded and a bad
+ * chunk does not roll back the rows before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBulkService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final List<String> COLUMNS = List.of("id", "name", "description", "price", "stock", "category", "imageKey");
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.products.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.products.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public enum Format {
+        CSV(TEXT_CSV), NDJSON(APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported format: " + name + ", expected csv or ndjson");
+            }
+        }
+
+        public static Format of(MediaType mediaType) {
+            for (Format format : values()) {
+                if (format.mediaType.isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported content type: " + mediaType + ", expected text/csv or application/x-ndjson");
+        }
+    }
+
+    public ImportResult importProducts(InputStream input, Format format) throws IOException {
+        log.info("Starting bulk product import, format={}, chunkSize={}", format, chunkSize);
+        ImportTally tally = new ImportTally(maxReportedErrors);
+        CategoryResolver categories = new CategoryResolver();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowReader rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+
+        long rowNumber = 0;
+        while (true) {
+            ProductSnapshot row;
+            try {
+                row = rows.next();
+            } catch (IllegalArgumentException | JacksonException e) {
+                tally.fail(++rowNumber, e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            rowNumber++;
+
+            String violation = validate(row);
+            if (violation != null) {
+                tally.fail(rowNumber, violation);
+                continue;
+            }
+
+            chunk.add(new ImportRow(rowNumber, row));
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, categories, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, categories, tally);
+        }
+
+        tally.processed = rowNumber;
+        ImportResult result = tally.result();
+        log.info("Bulk product import finished: processed={}, created={}, updated={}, failed={}",
+                result.processed(), result.created(), result.updated(), result.failed());
+        return result;
+    }
+
+    /**
+     * Streams every product ordered by id. Rows are read as constructor projections, so the
+     * persistence context never holds more than the current row.
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream output, Format format) throws IOException {
+        log.info("Starting bulk product export, format={}", format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = 0;
+
+        if (format == Format.CSV) {
+            Csv.writeRecord(writer, COLUMNS);
+        }
+        try (Stream<ProductSnapshot> products = productRepository.streamAllSnapshots()) {
+            for (ProductSnapshot product : (Iterable<ProductSnapshot>) products::iterator) {
+                if (format == Format.CSV) {
+                    Csv.writeRecord(writer, List.of(product.id(), nullToEmpty(product.name()),
+                            nullToEmpty(product.description()), nullToEmpty(product.price()),
+                            nullToEmpty(product.stock()), nullToEmpty(product.category()),
+                            nullToEmpty(product.imageKey())));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        log.info("Bulk product export finished, {} product(s) written", count);
+    }
+
+    private void writeChunk(List<ImportRow> chunk, CategoryResolver categories, ImportTally tally) {
+        ChunkOutcome outcome = new ChunkOutcome();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                categories.resolve(chunk.stream().map(row -> row.product().category()).collect(Collectors.toSet()));
+
+                Set<Long> ids = chunk.stream()
+                        .map(row -> row.product().id())
+                        .filter(id -> id != null)
+                        .collect(Collectors.toSet());
+                Map<Long, Product> existing = productRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+                List<Product> toSave = new ArrayList<>(chunk.size());
+                for (ImportRow row : chunk) {
+                    ProductSnapshot data = row.product();
+                    Category category = categories.get(data.category());
+                    if (category == null) {
+                        outcome.errors.add(new ImportResult.RowError(row.number(), "Category not found: " + data.category()));
+                        continue;
+                    }
+
+                    Product product;
+                    if (data.id() == null) {
+                        product = new Product();
+                        outcome.created++;
+                    } else {
+                        product = existing.get(data.id());
+                        if (product == null) {
+                            outcome.errors.add(new ImportResult.RowError(row.number(), "Product not found with ID: " + data.id()));
+                            continue;
+                        }
+                        outcome.updatedIds.add(product.getId());
+                    }
+
+                    product.setName(data.name());
+                    product.setDescription(data.description());
+                    product.setPrice(data.price());
+                    product.setStock(data.stock());
+                    product.setCategory(category);
+                    if (data.imageKey() != null) {
+                        product.setImageUrl(data.imageKey());
+                    }
+                    toSave.add(product);
+                }
+
+                // Flushed through the repository so constraint failures arrive as DataAccessException
+                productRepository.saveAllAndFlush(toSave);
+
+                Cache cache = cacheManager.getCache("products");
+                Map<Long, String> names = new HashMap<>();
+                for (Product product : toSave) {
+                    if (cache != null && outcome.updatedIds.contains(product.getId())) {
+                        cache.evict(product.getId());
+                    }
+                    names.put(product.getId(), product.getName());
+                }
+                eventPublisher.publishEvent(new ProductsChangedEvent(names));
+                entityManager.clear();
+            });
+        } catch (DataAccessException | TransactionSystemException e) {
+            log.warn("Bulk import chunk of {} row(s) starting at row {} failed", chunk.size(), chunk.getFirst().number(), e);
+            String message = "Chunk rejected by the database: " + e.getMostSpecificCause().getMessage();
+            chunk.forEach(row -> tally.fail(row.number(), message));
+            return;
+        }
+
+        tally.created += outcome.created;
+        tally.updated += outcome.updatedIds.size();
+        outcome.errors.forEach(error -> tally.fail(error.row(), error.message()));
+    }
+
+    private String validate(ProductSnapshot row) {
+        ProductDto dto = ProductDto.builder()
+                .name(row.name())
+                .description(row.description())
+                .price(row.price())
+                .stock(row.stock())
+                .category(row.category())
+                .build();
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private RowReader csvRows(BufferedReader reader) throws IOException {
+        List<String> header = Csv.readRecord(reader);
+        if (header == null) {
+            return () -> null;
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "stock", "category")) {
+            if (!positions.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+
+        return () -> {
+            List<String> record;
+            do {
+                record = Csv.readRecord(reader);
+            } while (record != null && record.size() == 1 && record.getFirst().isBlank());
+            if (record == null) {
+                return null;
+            }
+
+            List<String> fields = record;
+            Function<String, String> column = name -> {
+                Integer position = positions.get(name.toLowerCase(Locale.ROOT));
+                if (position == null || position >= fields.size() || fields.get(position).isBlank()) {
+                    return null;
+                }
+                return fields.get(position).trim();
+            };
+            return new ProductSnapshot(
+                    parse(column.apply("id"), "id", Long::valueOf),
+                    column.apply("name"),
+                    column.apply("description"),
+                    parse(column.apply("price"), "price", BigDecimal::new),
+                    parse(column.apply("stock"), "stock", Integer::valueOf),
+                    column.apply("category"),
+                    column.apply("imageKey"));
+        };
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line == null ? null : objectMapper.readValue(line, ProductSnapshot.class);
+        };
+    }
+
+    private static <T> T parse(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static Object nullToEmpty(Object value) {
+        return value == null ? "" : value;
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        ProductSnapshot next() throws IOException;
+    }
+
+    private record ImportRow(long number, ProductSnapshot product) {
+    }
+
+    private static class ChunkOutcome {
+        private long created;
+        private final Set<Long> updatedIds = new HashSet<>();
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+    }
+
+    /**
+     * Looks up each category name once per import, in one query per chunk for the names not seen yet.
+     */
+    private class CategoryResolver {
+
+        private final Map<String, Category> resolved = new HashMap<>();
+        private final Set<String> missing = new HashSet<>();
+
+        void resolve(Set<String> names) {
+            Set<String> unknown = new HashSet<>(names);
+            unknown.removeAll(resolved.keySet());
+            unknown.removeAll(missing);
+            if (unknown.isEmpty()) {
+                return;
+            }
+            categoryRepository.findByNameIn(unknown).forEach(category -> resolved.put(category.getName(), category));
+            unknown.removeAll(resolved.keySet());
+            missing.addAll(unknown);
+        }
+
+        Category get(String name) {
+            return resolved.get(name);
+        }
+    }
+
+    private static class ImportTally {
+
+        private final int maxReportedErrors;
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+        private long processed;
+        private long created;
+        private long updated;
+        private long failed;
+
+        ImportTally(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResult.RowError(row, message));
+            }
+        }
+
+        ImportResult result() {
+            errors.sort((a, b) -> Long.compare(a.row(), b.row()));
+            return new ImportResult(processed, created, updated, failed, List.copyOf(errors));
+        }
+    }
+}
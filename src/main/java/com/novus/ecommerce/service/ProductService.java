@@ -1,23 +1,40 @@
 package com.novus.ecommerce.service;
 
 import com.novus.ecommerce.dto.entity.ProductDto;
+import com.novus.ecommerce.dto.entity.ProductSnapshot;
+import com.novus.ecommerce.dto.response.CursorPage;
+import com.novus.ecommerce.dto.response.ProductFacets;
 import com.novus.ecommerce.entity.Category;
 import com.novus.ecommerce.entity.Product;
 import com.novus.ecommerce.exception.custom.EntityNotFoundException;
+import com.novus.ecommerce.repository.ProductFacetRepository;
 import com.novus.ecommerce.repository.ProductRepository;
+import com.novus.ecommerce.utils.event.ProductChangedEvent;
+import com.novus.ecommerce.utils.pagination.CursorCodec;
 import com.novus.ecommerce.utils.specs.ProductSpecs;
 import io.micrometer.common.util.StringUtils;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,9 +44,146 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryService categoryService;
     private final S3Service s3Service;
+    private final ApplicationEventPublisher eventPublisher;
 
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("id", "name", "price", "stock", "createdAt");
+
+    @Value("${app.facets.price-buckets:0,25,50,100,250,500,1000}")
+    private List<BigDecimal> defaultPriceBuckets;
+
+    @Transactional(readOnly = true)
     public Page<ProductDto> getAllProductsByCriteria(Pageable pageable, String category, String name, String price) {
         log.debug("Fetching products with filters - category: {}, name: {}, price: {}", category, name, price);
+
+        Specification<Product> specs = buildSpecs(category, name, price);
+        if (StringUtils.isNotEmpty(name) && pageable.getSort().isUnsorted()) {
+            // A client sort is honoured; without one the most relevant products come first
+            specs = specs.and(ProductSpecs.rankedByText(toPrefixQuery(name)));
+        }
+
+        Page<Product> result = productRepository.findAll(specs, pageable);
+        log.debug("Found {} products matching criteria", result.getTotalElements());
+        return result.map(this::mapToDto);
+    }
+
+    /**
+     * Keyset listing over one sort property plus id. Nullable sort properties order nulls last: the
+     * rows with a value are read first, and the rows without one only once those run out, each part
+     * by its own index range. The cursor is bound to the sort and filters it was issued for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> getProductsByCursor(String cursor, int size, Sort sort, boolean includeTotal,
+                                                      String category, String name, String price) {
+        log.debug("Fetching products after cursor with filters - category: {}, name: {}, price: {}",
+                category, name, price);
+        Sort.Order order = cursorOrder(sort);
+        String scope = CursorCodec.scope(order.getProperty(), order.getDirection(),
+                category != null ? category.toLowerCase() : null, name, price);
+        Map<String, Object> position = CursorCodec.decodeKeys(cursor, scope);
+
+        Specification<Product> specs = buildSpecs(category, name, price);
+        List<Product> rows = new ArrayList<>(size + 1);
+        // A cursor holding a null sort value is already in the nulls-last tail
+        boolean inNullTail = !position.isEmpty() && position.get(order.getProperty()) == null;
+        if (!inNullTail) {
+            rows.addAll(productRepository.findBy(specs.and(ProductSpecs.seekAfter(order, position)),
+                    query -> query.limit(size + 1).all()));
+        }
+        if (rows.size() <= size && !"id".equals(order.getProperty())) {
+            Long lastId = inNullTail ? (Long) position.get("id") : null;
+            int remaining = size + 1 - rows.size();
+            rows.addAll(productRepository.findBy(specs.and(ProductSpecs.seekNullsAfter(order, lastId)),
+                    query -> query.limit(remaining).all()));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? CursorCodec.encode(cursorKeys(content.getLast(), order), scope) : null;
+        Long total = includeTotal ? productRepository.count(specs) : null;
+
+        log.debug("Fetched {} products, hasNext={}", content.size(), hasNext);
+        return new CursorPage<>(content.stream().map(this::mapToDto).toList(), nextCursor, total);
+    }
+
+    private static Sort.Order cursorOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException("Cursor pagination sorts by one property at a time");
+        }
+        if (orders.isEmpty()) {
+            return Sort.Order.asc("id");
+        }
+        Sort.Order order = orders.getFirst();
+        if (!CURSOR_SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Cursor pagination cannot sort by " + order.getProperty());
+        }
+        return order;
+    }
+
+    private static Map<String, Object> cursorKeys(Product product, Sort.Order order) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        switch (order.getProperty()) {
+            case "name" -> keys.put("name", product.getName());
+            case "price" -> keys.put("price", product.getPrice());
+            case "stock" -> keys.put("stock", product.getStock());
+            case "createdAt" -> keys.put("createdAt", product.getCreatedAt());
+            default -> {
+            }
+        }
+        keys.put("id", product.getId());
+        return keys;
+    }
+
+    /**
+     * Category counts and price histogram for the products matching the given filters,
+     * computed with one grouped aggregate query. Products without a price or priced below the
+     * first boundary are counted under their category but left out of the histogram.
+     */
+    @Transactional(readOnly = true)
+    public ProductFacets getFacets(String category, String name, String price, String priceBuckets) {
+        List<BigDecimal> boundaries = StringUtils.isNotEmpty(priceBuckets)
+                ? Arrays.stream(priceBuckets.split(",")).map(String::trim).map(BigDecimal::new).toList()
+                : defaultPriceBuckets;
+
+        if (boundaries.size() < 2) {
+            throw new IllegalArgumentException("Price buckets need at least 2 boundaries (e.g., 0,100,500)");
+        }
+        for (int i = 1; i < boundaries.size(); i++) {
+            if (boundaries.get(i).compareTo(boundaries.get(i - 1)) <= 0) {
+                throw new IllegalArgumentException("Price bucket boundaries must be strictly increasing");
+            }
+        }
+
+        List<ProductFacetRepository.FacetRow> rows =
+                productRepository.countFacets(buildSpecs(category, name, price), boundaries);
+
+        Map<String, Long> categoryCounts = new TreeMap<>();
+        long[] bucketCounts = new long[boundaries.size()];
+        for (ProductFacetRepository.FacetRow row : rows) {
+            if (row.category() != null) {
+                categoryCounts.merge(row.category(), row.count(), Long::sum);
+            }
+            if (row.bucket() >= 0) {
+                bucketCounts[row.bucket()] += row.count();
+            }
+        }
+
+        List<ProductFacets.PriceBucket> buckets = new ArrayList<>(boundaries.size());
+        for (int i = 0; i < boundaries.size(); i++) {
+            BigDecimal to = i + 1 < boundaries.size() ? boundaries.get(i + 1) : null;
+            buckets.add(new ProductFacets.PriceBucket(boundaries.get(i), to, bucketCounts[i]));
+        }
+
+        log.debug("Computed facets from {} grouped rows", rows.size());
+        return new ProductFacets(categoryCounts, buckets);
+    }
+
+    /**
+     * Filters shared by the offset listing, the cursor listing and the facets, so all three describe
+     * the same result set. {@code name} is a full-text match over name and description, every term
+     * prefix-matched.
+     */
+    private Specification<Product> buildSpecs(String category, String name, String price) {
         Specification<Product> specs = Specification.unrestricted();
 
         if (category != null) {
@@ -38,44 +192,75 @@ public class ProductService {
         }
 
         if (StringUtils.isNotEmpty(name)) {
-            specs = specs.and(ProductSpecs.containsName(name));
+            specs = specs.and(ProductSpecs.matchesText(toPrefixQuery(name)));
         }
 
         if (StringUtils.isNotEmpty(price)) {
-            String[] prices = price.split(",");
+            BigDecimal[] range = parsePriceRange(price);
+            specs = specs.and(ProductSpecs.priceWithinRange(range[0], range[1]));
+            log.debug("Price filter applied: {} to {}", range[0], range[1]);
+        }
 
-            if (prices.length != 2) {
-                log.warn("Invalid price filter format: {}", price);
-                throw new IllegalArgumentException(
-                        "Price filter should contain exactly 2 values separated by comma (e.g., 100,500)");
-            }
+        return specs;
+    }
 
-            BigDecimal min = new BigDecimal(
-                    (prices[0].isEmpty() || Double.isNaN(Double.parseDouble(prices[0])) ? "0" : prices[0]));
-            BigDecimal max = new BigDecimal(
-                    (prices[1].isEmpty() || Double.isNaN(Double.parseDouble(prices[1])) ? "10000" : prices[1]));
+    private static String toPrefixQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
 
-            specs = specs.and(ProductSpecs.priceWithinRange(min, max));
-            log.debug("Price filter applied: {} to {}", min, max);
+    private BigDecimal[] parsePriceRange(String price) {
+        String[] prices = price.split(",");
+
+        if (prices.length != 2) {
+            log.warn("Invalid price filter format: {}", price);
+            throw new IllegalArgumentException(
+                    "Price filter should contain exactly 2 values separated by comma (e.g., 100,500)");
         }
 
-        Page<Product> result = productRepository.findAll(specs, pageable);
-        log.debug("Found {} products matching criteria", result.getTotalElements());
-        return result.map(this::mapToDto);
+        BigDecimal min = new BigDecimal(
+                (prices[0].isEmpty() || Double.isNaN(Double.parseDouble(prices[0])) ? "0" : prices[0]));
+        BigDecimal max = new BigDecimal(
+                (prices[1].isEmpty() || Double.isNaN(Double.parseDouble(prices[1])) ? "10000" : prices[1]));
+        return new BigDecimal[]{min, max};
     }
 
-    @Cacheable(value = "products", key = "#id")
     public Product findById(Long id) {
         log.debug("Fetching product by ID: {}", id);
         return productRepository.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Product not found with ID: " + id));
     }
 
+    @Cacheable(value = "products", key = "#id", sync = true)
+    public ProductSnapshot getSnapshot(Long id) {
+        return loadSnapshot(id);
+    }
+
+    /**
+     * Uncached snapshot load, also used by the products cache to refresh hot entries in the background.
+     */
+    public ProductSnapshot loadSnapshot(Long id) {
+        log.debug("Loading product snapshot by ID: {}", id);
+        Product product = productRepository.findWithCategoryById(id).orElseThrow(
+                () -> new EntityNotFoundException("Product not found with ID: " + id));
+        return new ProductSnapshot(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStock(),
+                product.getCategory() != null ? product.getCategory().getName() : null,
+                product.getImageUrl());
+    }
+
     @Transactional
     public Long save(ProductDto productDto) {
         log.info("Creating new product: {}", productDto.getName());
         Product product = mapToEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), savedProduct.getName(), false));
         log.info("Product created with ID: {}", savedProduct.getId());
         return savedProduct.getId();
     }
@@ -99,6 +284,7 @@ public class ProductService {
         }
 
         productRepository.save(found);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, found.getName(), false));
         log.info("Product {} updated successfully", id);
     }
 
@@ -110,6 +296,7 @@ public class ProductService {
                 () -> new EntityNotFoundException("Product not found with ID: " + id));
         s3Service.deleteImage(found.getImageUrl());
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, found.getName(), true));
         log.info("Product {} deleted successfully", id);
     }
 
@@ -135,13 +322,27 @@ public class ProductService {
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .stock(product.getStock())
-                .category(product.getCategory().getName())
+                .category(product.getCategory() != null ? product.getCategory().getName() : null)
                 .imageUrl(product.getImageUrl() != null
                         ? s3Service.getPresignedGetUrl(product.getImageUrl()).uploadUrl()
                         : null)
                 .build();
     }
 
+    public ProductDto mapToDto(ProductSnapshot snapshot) {
+        return ProductDto.builder()
+                .id(snapshot.id())
+                .name(snapshot.name())
+                .description(snapshot.description())
+                .price(snapshot.price())
+                .stock(snapshot.stock())
+                .category(snapshot.category())
+                .imageUrl(snapshot.imageKey() != null
+                        ? s3Service.getPresignedGetUrl(snapshot.imageKey()).uploadUrl()
+                        : null)
+                .build();
+    }
+
     public Product mapToEntity(ProductDto productDto) {
         Category category = categoryService.findByName(productDto.getCategory());
         return Product.builder()
@@ -0,0 +1,93 @@
+package com.novus.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired refresh tokens in small batches. Every batch is its own short autocommit
+ * statement and skips rows another transaction holds, so a login rotating its token never
+ * waits on the sweep and the sweep never waits on a login.
+ */
+@Component
+@ConditionalOnProperty(name = "app.tokens.purge.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RefreshTokenPurger {
+
+    private static final String PURGE_SQL = """
+            DELETE FROM refresh_token WHERE id IN (
+                SELECT id FROM refresh_token
+                WHERE expiry_date < ?
+                ORDER BY expiry_date
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final int maxBatchesPerRun;
+    private final Counter purgedCounter;
+    private final Timer runTimer;
+
+    public RefreshTokenPurger(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.tokens.purge.batch-size:1000}") int batchSize,
+                              @Value("${app.tokens.purge.batch-pause:200ms}") Duration batchPause,
+                              @Value("${app.tokens.purge.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.purgedCounter = Counter.builder("refresh_tokens.purged")
+                .description("Expired refresh tokens deleted by the purge job")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("refresh_tokens.purge")
+                .description("Duration of one refresh token purge run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deletes up to {@code maxBatchesPerRun} batches, pausing between them to cap the write rate.
+     * Whatever is left over is picked up by the next run.
+     */
+    @Scheduled(initialDelayString = "${app.tokens.purge.interval:1h}",
+            fixedDelayString = "${app.tokens.purge.interval:1h}")
+    long purge() {
+        long purged = 0;
+        long start = System.nanoTime();
+        try {
+            Timestamp now = Timestamp.from(Instant.now());
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int deleted = jdbcTemplate.update(PURGE_SQL, now, batchSize);
+                purged += deleted;
+                purgedCounter.increment(deleted);
+                if (deleted < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Refresh token purge failed after {} row(s)", purged, e);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired refresh token(s)", purged);
+        }
+        return purged;
+    }
+}
@@ -4,6 +4,8 @@ import com.novus.ecommerce.config.S3Config;
 import com.novus.ecommerce.dto.response.PresignedUrlResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
@@ -50,6 +52,7 @@ public class S3Service {
         return new PresignedUrlResponse(presignedUrl, key, s3Config.getUploadExpirationMinutes());
     }
 
+    @Cacheable(value = "presigned_urls", key = "#key", condition = "#key != null", unless = "#result == null")
     public PresignedUrlResponse getPresignedGetUrl(String key) {
 
         if (key == null || key.isBlank()) {
@@ -71,6 +74,7 @@ public class S3Service {
         return new PresignedUrlResponse(presignedUrl, key, s3Config.getDownloadExpirationMinutes());
     }
 
+    @CacheEvict(value = "presigned_urls", key = "#key", condition = "#key != null")
     public void deleteImage(String key) {
 
         if (key == null || key.isBlank()) {
@@ -0,0 +1,219 @@
+package com.novus.ecommerce.service;
+
+import com.novus.ecommerce.cache.CacheInvalidationBus;
+import com.novus.ecommerce.dto.response.SuggestionResponse;
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.repository.CategoryRepository;
+import com.novus.ecommerce.repository.ProductRepository;
+import com.novus.ecommerce.utils.event.CategoryCreatedEvent;
+import com.novus.ecommerce.utils.event.ProductChangedEvent;
+import com.novus.ecommerce.utils.event.ProductsChangedEvent;
+import com.novus.ecommerce.utils.search.SuggestionIndex;
+import com.novus.ecommerce.utils.search.SuggestionOverlay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory typeahead over product and category names, ranked by units sold (categories by the
+ * units sold across their products), so suggestions never hit the database.
+ * <p>
+ * The ranked {@link SuggestionIndex} is rebuilt from the database at startup and every
+ * {@code app.suggest.rebuild-interval}. Changes in between are kept in a {@link SuggestionOverlay}
+ * that takes precedence over the index: local ones straight from the change events, other nodes' ones
+ * announced on the {@link CacheInvalidationBus} and resolved in batches. Once the overlay holds more
+ * than {@code app.suggest.max-pending} changes, for instance during a bulk import, the index is
+ * rebuilt early instead of waiting for the interval. Every node converges on the same index at its
+ * next rebuild.
+ */
+@Service
+@Slf4j
+public class SuggestionService {
+
+    static final String CHANNEL = "suggestions";
+
+    private static final String PRODUCT = "product";
+    private static final String CATEGORY = "category";
+    private static final String PRODUCT_KEY = "product:";
+    private static final String CATEGORY_KEY = "category:";
+    private static final int RESOLVE_BATCH = 1000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CacheInvalidationBus bus;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPending;
+
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+    private final SuggestionOverlay overlay = new SuggestionOverlay();
+    private final Set<Long> unresolved = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean earlyRebuild = new AtomicBoolean();
+    private long previousRebuild;
+
+    public SuggestionService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                             CacheInvalidationBus bus, PlatformTransactionManager transactionManager,
+                             @Value("${app.suggest.max-pending:10000}") int maxPending) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.bus = bus;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPending = maxPending;
+        bus.subscribe((channel, key) -> {
+            if (!CHANNEL.equals(channel) || key == null) {
+                return;
+            }
+            if (key.startsWith(PRODUCT_KEY)) {
+                // Resolved off the listener thread, so a bulk import does not hold up cache evictions
+                unresolved.add(Long.valueOf(key.substring(PRODUCT_KEY.length())));
+            } else if (key.startsWith(CATEGORY_KEY)) {
+                applyCategory(key.substring(CATEGORY_KEY.length()));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.suggest.rebuild-interval:15m}",
+            fixedDelayString = "${app.suggest.rebuild-interval:15m}")
+    public synchronized void rebuild() {
+        earlyRebuild.set(false);
+        long started = sequence.get();
+        long start = System.nanoTime();
+
+        SuggestionIndex.Builder builder = SuggestionIndex.builder();
+        Map<String, Long> categoryScores = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductRepository.SuggestionCandidate> candidates = productRepository.streamSuggestionCandidates()) {
+                candidates.forEach(product -> {
+                    builder.add(product.getName(), PRODUCT, product.getSold(), product.getId());
+                    if (product.getCategory() != null) {
+                        categoryScores.merge(product.getCategory(), product.getSold(), Long::sum);
+                    }
+                });
+            }
+            for (Category category : categoryRepository.findAll()) {
+                builder.add(category.getName(), CATEGORY, categoryScores.getOrDefault(category.getName(), 0L), null);
+            }
+        });
+        index = builder.build();
+
+        // The rebuild may read from a replica, so changes are kept until the next one has surely seen them
+        overlay.removeOlderThan(previousRebuild);
+        previousRebuild = started;
+        // What this rebuild saw leaves the overlay at the next one, so that one comes early too
+        requestRebuildIfFull();
+        log.info("Suggestion index rebuilt with {} entries in {} ms, {} change(s) still pending", index.size(),
+                (System.nanoTime() - start) / 1_000_000, overlay.size());
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = SuggestionIndex.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        Map<SuggestionResponse, Long> candidates = new LinkedHashMap<>();
+        index.forEachMatch(key, match -> {
+            if (match.productId() == null || !overlay.overrides(match.productId())) {
+                candidates.putIfAbsent(new SuggestionResponse(match.text(), match.type()), match.score());
+            }
+            return candidates.size() < limit;
+        });
+        overlay.forEachMatch(key, match ->
+                candidates.merge(new SuggestionResponse(match.text(), match.type()), match.score(), Math::max));
+
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<SuggestionResponse, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        applyProduct(event.productId(), event.deleted() ? null : event.name());
+        bus.publish(CHANNEL, PRODUCT_KEY + event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        event.names().forEach((productId, name) -> {
+            applyProduct(productId, name);
+            bus.publish(CHANNEL, PRODUCT_KEY + productId);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryCreated(CategoryCreatedEvent event) {
+        applyCategory(event.name());
+        bus.publish(CHANNEL, CATEGORY_KEY + event.name());
+    }
+
+    /**
+     * Looks up the current names of products other nodes changed; ids no longer found were deleted.
+     * Also runs the early rebuild once the overlay has grown past {@code app.suggest.max-pending}.
+     */
+    @Scheduled(fixedDelayString = "${app.suggest.sync-interval:1s}")
+    public void resolveRemoteChanges() {
+        resolveUnresolved();
+        if (earlyRebuild.get()) {
+            log.info("{} suggestion change(s) pending, rebuilding the index early", overlay.size());
+            rebuild();
+        }
+    }
+
+    private void resolveUnresolved() {
+        while (!unresolved.isEmpty()) {
+            List<Long> ids = new ArrayList<>(RESOLVE_BATCH);
+            for (Long id : unresolved) {
+                if (ids.size() == RESOLVE_BATCH) {
+                    break;
+                }
+                ids.add(id);
+            }
+            ids.forEach(unresolved::remove);
+
+            Map<Long, String> names = new HashMap<>();
+            productRepository.findNamesByIdIn(ids).forEach(product -> names.put(product.getId(), product.getName()));
+            ids.forEach(id -> applyProduct(id, names.get(id)));
+        }
+    }
+
+    /**
+     * @param name the product's current name, or {@code null} once it has been deleted
+     */
+    private void applyProduct(Long productId, String name) {
+        overlay.putProduct(productId, name, PRODUCT, index.scoreOf(productId), sequence.incrementAndGet());
+        requestRebuildIfFull();
+    }
+
+    private void applyCategory(String name) {
+        overlay.putCategory(name, CATEGORY, sequence.incrementAndGet());
+        requestRebuildIfFull();
+    }
+
+    private void requestRebuildIfFull() {
+        if (overlay.size() > maxPending) {
+            earlyRebuild.set(true);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.novus.ecommerce.service;
 
+import com.novus.ecommerce.dto.entity.RefreshTokenGrant;
 import com.novus.ecommerce.entity.RefreshToken;
 import com.novus.ecommerce.entity.User;
 import com.novus.ecommerce.exception.custom.EntityNotFoundException;
 import com.novus.ecommerce.repository.TokenRepository;
-import com.novus.ecommerce.repository.UserRepository;
+import com.novus.ecommerce.security.jwt.RefreshTokenCache;
+import com.novus.ecommerce.utils.crypto.Digests;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,59 +24,55 @@ public class TokenService {
     private Long tokenExpiration;
 
     private final TokenRepository tokenRepository;
-    private final UserRepository userRepository;
+    private final RefreshTokenCache refreshTokenCache;
 
+    /**
+     * Issues a new refresh token on every login. Only its digest is stored, so an existing token
+     * cannot be handed out again; the user's previous token is replaced and stops working.
+     */
     @Transactional
     public String generateToken(User user) {
 
         Optional<RefreshToken> token = tokenRepository.findByUserId(user.getId());
 
-        if (token.isPresent()) {
-
-            RefreshToken refreshToken = token.get();
-
-            if (refreshToken.getExpiryDate().after(new Date())) {
-                return token.get().getToken();
-            }
-
-            refreshToken.setToken(UUID.randomUUID().toString());
-            refreshToken.setExpiryDate(new Date(System.currentTimeMillis() + tokenExpiration));
-
-            tokenRepository.updateByUserId(user.getId(), refreshToken.getToken());
-            return refreshToken.getToken();
+        String value = UUID.randomUUID().toString();
+        byte[] tokenHash = Digests.sha256(value);
+        Date expiryDate = new Date(System.currentTimeMillis() + tokenExpiration);
 
+        // An expired row may have been purged since it was read, in which case a new one is inserted
+        if (token.isPresent() && tokenRepository.updateByUserId(user.getId(), tokenHash, expiryDate) > 0) {
+            refreshTokenCache.revoke(token.get().getTokenHash());
+            return value;
         }
 
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(UUID.randomUUID().toString())
+                .tokenHash(tokenHash)
                 .user(user)
-                .expiryDate(new Date(System.currentTimeMillis() + tokenExpiration))
+                .expiryDate(expiryDate)
                 .build();
 
         tokenRepository.save(refreshToken);
-        return refreshToken.getToken();
-    }
-
-    public String getUserId(String token) {
-        RefreshToken refreshToken = tokenRepository.findByToken(token).orElseThrow(
-                () -> new EntityNotFoundException("Token not found")
-        );
-
-        return refreshToken.getUser().getEmail();
+        return value;
     }
 
-    public boolean validateToken(String token) {
-        Optional<RefreshToken> refreshToken = tokenRepository.findByToken(token);
-        return refreshToken.isPresent()
-                && refreshToken.get().getExpiryDate().after(new Date())
-                && userRepository.existsById(refreshToken.get().getUser().getId());
+    /**
+     * Resolves the token's owner and role in one indexed query, served from a short-lived cache
+     * keyed by the token digest. Empty for unknown, revoked and expired tokens.
+     */
+    public Optional<RefreshTokenGrant> validateToken(String token) {
+        byte[] tokenHash = Digests.sha256(token);
+        RefreshTokenGrant grant = refreshTokenCache.get(tokenHash,
+                () -> tokenRepository.findGrantByTokenHash(tokenHash).orElse(RefreshTokenGrant.INVALID));
+        return grant.isValid() ? Optional.of(grant) : Optional.empty();
     }
 
     @Transactional
     public void revokeUserToken(String token) {
-        RefreshToken refreshToken = tokenRepository.findByToken(token).orElseThrow(
+        byte[] tokenHash = Digests.sha256(token);
+        RefreshToken refreshToken = tokenRepository.findByTokenHash(tokenHash).orElseThrow(
                 () -> new EntityNotFoundException("Token not found")
         );
         tokenRepository.delete(refreshToken);
+        refreshTokenCache.revoke(tokenHash);
     }
 }
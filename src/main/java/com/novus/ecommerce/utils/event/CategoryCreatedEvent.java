@@ -0,0 +1,4 @@
+package com.novus.ecommerce.utils.event;
+
+public record CategoryCreatedEvent(String name) {
+}
@@ -0,0 +1,4 @@
+package com.novus.ecommerce.utils.event;
+
+public record ProductChangedEvent(Long productId, String name, boolean deleted) {
+}
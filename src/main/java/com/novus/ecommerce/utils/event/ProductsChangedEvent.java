@@ -0,0 +1,9 @@
+package com.novus.ecommerce.utils.event;
+
+import java.util.Map;
+
+/**
+ * Products written together, such as one chunk of a bulk import, keyed by id with their current name.
+ */
+public record ProductsChangedEvent(Map<Long, String> names) {
+}
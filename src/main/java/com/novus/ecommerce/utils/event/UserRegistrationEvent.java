@@ -1,4 +1,6 @@
 package com.novus.ecommerce.utils.event;
 
-public record UserRegistrationEvent(String email) {
+import java.util.Locale;
+
+public record UserRegistrationEvent(String email, Locale locale) {
 }
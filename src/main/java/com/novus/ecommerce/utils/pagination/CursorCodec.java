@@ -0,0 +1,137 @@
+package com.novus.ecommerce.utils.pagination;
+
+import com.novus.ecommerce.utils.crypto.Digests;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursors. Each key is stored
+ * with a type tag so it can be restored to the same Java type the query compares against.
+ * <p>
+ * A cursor also carries a fingerprint of the scope it was issued for: the sort and filters of the
+ * query. A cursor replayed against a different sort or different filters would seek to a
+ * position in another ordering, so it is rejected instead.
+ */
+public final class CursorCodec {
+
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private CursorCodec() {
+    }
+
+    /**
+     * @param scope the sort and filters the position belongs to, see {@link #scope(Object...)}
+     */
+    public static String encode(Map<String, ?> keys, String scope) {
+        StringBuilder raw = new StringBuilder(fingerprint(scope)).append('|');
+        boolean first = true;
+        for (Map.Entry<String, ?> key : keys.entrySet()) {
+            if (!first) {
+                raw.append('&');
+            }
+            first = false;
+            raw.append(key.getKey())
+                    .append('=')
+                    .append(tagOf(key.getValue()))
+                    .append(':')
+                    .append(URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(KeysetScrollPosition position, String scope) {
+        return encode(position.getKeys(), scope);
+    }
+
+    /**
+     * Keys of the position a cursor points at, in sort order; empty for the first page. Key values
+     * are {@code null} where the row had no value for a sort property.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another scope
+     */
+    public static Map<String, Object> decodeKeys(String cursor, String scope) {
+        if (cursor == null || cursor.isBlank()) {
+            return Map.of();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int separator = raw.indexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!raw.substring(0, separator).equals(fingerprint(scope))) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort or filter, start again without it");
+        }
+        try {
+            for (String pair : raw.substring(separator + 1).split("&")) {
+                int eq = pair.indexOf('=');
+                int colon = pair.indexOf(':', eq);
+                String value = URLDecoder.decode(pair.substring(colon + 1), StandardCharsets.UTF_8);
+                keys.put(pair.substring(0, eq), valueOf(pair.charAt(eq + 1), value));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return keys;
+    }
+
+    public static KeysetScrollPosition decode(String cursor, String scope) {
+        Map<String, Object> keys = decodeKeys(cursor, scope);
+        return keys.isEmpty() ? ScrollPosition.keyset() : ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Joins the parts that define a query's result order into a scope string. {@code null} parts
+     * are kept distinct from empty ones.
+     */
+    public static String scope(Object... parts) {
+        StringBuilder scope = new StringBuilder();
+        for (Object part : parts) {
+            scope.append(part == null ? "\\0" : URLEncoder.encode(part.toString(), StandardCharsets.UTF_8)).append(';');
+        }
+        return scope.toString();
+    }
+
+    private static String fingerprint(String scope) {
+        return Digests.sha256Hex(scope).substring(0, FINGERPRINT_LENGTH);
+    }
+
+    private static char tagOf(Object value) {
+        return switch (value) {
+            case null -> 'N';
+            case Long ignored -> 'L';
+            case Integer ignored -> 'I';
+            case BigDecimal ignored -> 'D';
+            case LocalDateTime ignored -> 'T';
+            case String ignored -> 'S';
+            default -> throw new IllegalArgumentException("Unsupported cursor key type: " + value.getClass());
+        };
+    }
+
+    private static Object valueOf(char tag, String value) {
+        return switch (tag) {
+            case 'L' -> Long.valueOf(value);
+            case 'I' -> Integer.valueOf(value);
+            case 'D' -> new BigDecimal(value);
+            case 'T' -> LocalDateTime.parse(value);
+            case 'S' -> value;
+            case 'N' -> null;
+            default -> throw new IllegalArgumentException("Unsupported cursor key tag: " + tag);
+        };
+    }
+}
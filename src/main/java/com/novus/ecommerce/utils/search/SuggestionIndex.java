@@ -0,0 +1,293 @@
+package com.novus.ecommerce.utils.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable typeahead index. Entries are numbered by descending score and every word start of every
+ * normalized name is a key in one sorted array, so the keys matching a prefix form a contiguous range.
+ * A min segment tree over the entry numbers of the keys hands out the best-scored matches in that
+ * range first, in O(limit log n) however many keys share the prefix.
+ * <p>
+ * Keys are packed {@code long}s (entry number and offset into the name) rather than strings, so the
+ * index costs 16 bytes per key on top of the names themselves.
+ */
+public final class SuggestionIndex {
+
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final long NO_PRODUCT = Long.MIN_VALUE;
+
+    public static final SuggestionIndex EMPTY = builder().build();
+
+    private final String[] texts;
+    private final String[] normalized;
+    private final String[] types;
+    private final long[] scores;
+    private final long[] productIds;
+    private final long[] keys;
+    private final int[] tree;
+    private final long[] sortedProductIds;
+    private final int[] entryOfProduct;
+
+    private SuggestionIndex(String[] texts, String[] types, long[] scores, long[] productIds) {
+        this.texts = texts;
+        this.types = types;
+        this.scores = scores;
+        this.productIds = productIds;
+        this.normalized = Arrays.stream(texts).map(SuggestionIndex::normalize).toArray(String[]::new);
+        this.keys = sortedKeys(normalized);
+        this.tree = buildTree();
+
+        Integer[] products = new Integer[productIds.length];
+        int count = 0;
+        for (int entry = 0; entry < productIds.length; entry++) {
+            if (productIds[entry] != NO_PRODUCT) {
+                products[count++] = entry;
+            }
+        }
+        Arrays.sort(products, 0, count, Comparator.comparingLong(entry -> productIds[entry]));
+        this.sortedProductIds = new long[count];
+        this.entryOfProduct = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedProductIds[i] = productIds[products[i]];
+            entryOfProduct[i] = products[i];
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Lowercases, trims and collapses whitespace; both names and queries go through this.
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Whether the normalized text has a word starting with {@code prefix}, the rule the index applies.
+     */
+    public static boolean matches(String normalizedText, String prefix) {
+        for (int offset = 0; offset >= 0; offset = nextWord(normalizedText, offset)) {
+            if (normalizedText.startsWith(prefix, offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Score the index was built with for a product, or 0 if it was not indexed.
+     */
+    public long scoreOf(long productId) {
+        int i = Arrays.binarySearch(sortedProductIds, productId);
+        return i >= 0 ? scores[entryOfProduct[i]] : 0;
+    }
+
+    /**
+     * Hands entries with a word starting with the normalized {@code prefix} to {@code visitor}, best
+     * score first, until it returns {@code false} or the matches run out.
+     */
+    public void forEachMatch(String prefix, Predicate<Match> visitor) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        if (from >= to) {
+            return;
+        }
+
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingInt(range -> entryAt(range[2])));
+        ranges.add(new int[]{from, to, best(from, to)});
+        Set<Integer> visited = new HashSet<>();
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            int entry = entryAt(position);
+            if (visited.add(entry) && !visitor.test(match(entry))) {
+                return;
+            }
+            if (range[0] < position) {
+                ranges.add(new int[]{range[0], position, best(range[0], position)});
+            }
+            if (position + 1 < range[1]) {
+                ranges.add(new int[]{position + 1, range[1], best(position + 1, range[1])});
+            }
+        }
+    }
+
+    private Match match(int entry) {
+        long productId = productIds[entry];
+        return new Match(texts[entry], types[entry], scores[entry], productId == NO_PRODUCT ? null : productId);
+    }
+
+    /**
+     * First key position whose suffix, cut to the prefix length, sorts after ({@code upper}) or not
+     * before the prefix.
+     */
+    private int bound(String prefix, boolean upper) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePrefix(keys[mid], prefix);
+            if (cmp < 0 || (upper && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int comparePrefix(long key, String prefix) {
+        String name = normalized[entry(key)];
+        int offset = offset(key);
+        int length = Math.min(name.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int diff = name.charAt(offset + i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length < prefix.length() ? -1 : 0;
+    }
+
+    private int[] buildTree() {
+        int n = keys.length;
+        int[] tree = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            tree[n + i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+        }
+        return tree;
+    }
+
+    /**
+     * Key position in [from, to) holding the best-ranked entry.
+     */
+    private int best(int from, int to) {
+        int n = keys.length;
+        int best = -1;
+        for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                best = better(best, tree[l++]);
+            }
+            if ((r & 1) == 1) {
+                best = better(best, tree[--r]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        return entryAt(a) <= entryAt(b) ? a : b;
+    }
+
+    private int entryAt(int position) {
+        return entry(keys[position]);
+    }
+
+    private static long[] sortedKeys(String[] normalized) {
+        List<Long> keys = new ArrayList<>();
+        for (int entry = 0; entry < normalized.length; entry++) {
+            String name = normalized[entry];
+            for (int offset = 0; offset >= 0 && offset <= MAX_OFFSET; offset = nextWord(name, offset)) {
+                keys.add(((long) entry << 16) | offset);
+            }
+        }
+
+        Long[] sorted = keys.toArray(Long[]::new);
+        Arrays.parallelSort(sorted, (a, b) -> compareSuffixes(normalized[entry(a)], offset(a),
+                normalized[entry(b)], offset(b)));
+        return Arrays.stream(sorted).mapToLong(Long::longValue).toArray();
+    }
+
+    private static int compareSuffixes(String a, int aOffset, String b, int bOffset) {
+        int aLength = a.length() - aOffset;
+        int bLength = b.length() - bOffset;
+        for (int i = 0; i < Math.min(aLength, bLength); i++) {
+            int diff = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    static int nextWord(String text, int offset) {
+        int space = text.indexOf(' ', offset);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    private static int entry(long key) {
+        return (int) (key >>> 16);
+    }
+
+    private static int offset(long key) {
+        return (int) (key & MAX_OFFSET);
+    }
+
+    /**
+     * @param productId the product behind the entry, or {@code null} for other entries such as categories
+     */
+    public record Match(String text, String type, long score, Long productId) {
+    }
+
+    public static final class Builder {
+
+        private final List<String> texts = new ArrayList<>();
+        private final List<String> types = new ArrayList<>();
+        private final List<Long> scores = new ArrayList<>();
+        private final List<Long> productIds = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String text, String type, long score, Long productId) {
+            if (!normalize(text).isEmpty()) {
+                texts.add(text);
+                types.add(type);
+                scores.add(score);
+                productIds.add(productId == null ? NO_PRODUCT : productId);
+            }
+            return this;
+        }
+
+        /**
+         * Numbers entries by descending score, ties by text, so a lower entry number ranks higher.
+         */
+        public SuggestionIndex build() {
+            Integer[] order = new Integer[texts.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.<Integer>comparingLong(scores::get).reversed().thenComparing(texts::get));
+
+            int n = order.length;
+            String[] sortedTexts = new String[n];
+            String[] sortedTypes = new String[n];
+            long[] sortedScores = new long[n];
+            long[] sortedProductIds = new long[n];
+            for (int i = 0; i < n; i++) {
+                sortedTexts[i] = texts.get(order[i]);
+                sortedTypes[i] = types.get(order[i]);
+                sortedScores[i] = scores.get(order[i]);
+                sortedProductIds[i] = productIds.get(order[i]);
+            }
+            return new SuggestionIndex(sortedTexts, sortedTypes, sortedScores, sortedProductIds);
+        }
+    }
+}
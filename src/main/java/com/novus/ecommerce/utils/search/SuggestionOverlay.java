@@ -0,0 +1,106 @@
+package com.novus.ecommerce.utils.search;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Changes made since a {@link SuggestionIndex} was built, laid over it until a later build has them.
+ * Every word start of every name is a key in a sorted map, as in the index, so a prefix lookup reads
+ * only the matching entries rather than the whole overlay. Entries carry the sequence number they
+ * were recorded with, which is what {@link #removeOlderThan} compares against.
+ */
+public final class SuggestionOverlay {
+
+    // Separates the word suffix from the entry's identity, and sorts before any character of a name
+    private static final char SEPARATOR = '\u0000';
+
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    private final Map<String, Entry> categories = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Entry> words = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param name the product's current name, or {@code null} once it has been deleted
+     */
+    public void putProduct(long productId, String name, String type, long score, long sequence) {
+        Entry entry = new Entry("p" + productId, name, SuggestionIndex.normalize(name), type, score, productId, sequence);
+        products.compute(productId, (id, previous) -> replace(previous, entry));
+    }
+
+    public void putCategory(String name, String type, long sequence) {
+        Entry entry = new Entry("c" + name, name, SuggestionIndex.normalize(name), type, 0, null, sequence);
+        categories.compute(name, (key, previous) -> replace(previous, entry));
+    }
+
+    /**
+     * Whether the overlay holds a newer state of the product, including its deletion, than the index.
+     */
+    public boolean overrides(long productId) {
+        return products.containsKey(productId);
+    }
+
+    /**
+     * Hands every entry with a word starting with the normalized {@code prefix} to {@code visitor}
+     * once, in no particular order. Deleted products are never handed out.
+     */
+    public void forEachMatch(String prefix, Consumer<SuggestionIndex.Match> visitor) {
+        Set<String> seen = new HashSet<>();
+        for (Entry entry : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (seen.add(entry.identity())) {
+                visitor.accept(new SuggestionIndex.Match(entry.text(), entry.type(), entry.score(), entry.productId()));
+            }
+        }
+    }
+
+    /**
+     * Drops the entries recorded before {@code sequence}; newer ones for the same product or category stay.
+     */
+    public void removeOlderThan(long sequence) {
+        products.keySet().forEach(id -> products.computeIfPresent(id, (key, entry) -> expire(entry, sequence)));
+        categories.keySet().forEach(name -> categories.computeIfPresent(name, (key, entry) -> expire(entry, sequence)));
+    }
+
+    public int size() {
+        return products.size() + categories.size();
+    }
+
+    private Entry replace(Entry previous, Entry entry) {
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (!entry.normalized().isEmpty()) {
+            for (int offset = 0; offset >= 0; offset = SuggestionIndex.nextWord(entry.normalized(), offset)) {
+                words.put(wordKey(entry, offset), entry);
+            }
+        }
+        return entry;
+    }
+
+    private Entry expire(Entry entry, long sequence) {
+        if (entry.sequence() >= sequence) {
+            return entry;
+        }
+        unindex(entry);
+        return null;
+    }
+
+    private void unindex(Entry entry) {
+        if (!entry.normalized().isEmpty()) {
+            for (int offset = 0; offset >= 0; offset = SuggestionIndex.nextWord(entry.normalized(), offset)) {
+                words.remove(wordKey(entry, offset), entry);
+            }
+        }
+    }
+
+    private static String wordKey(Entry entry, int offset) {
+        return entry.normalized().substring(offset) + SEPARATOR + entry.identity();
+    }
+
+    private record Entry(String identity, String text, String normalized, String type, long score, Long productId,
+                         long sequence) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.novus.ecommerce.utils.specs;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers row-value comparisons, which the Criteria API cannot express, so keyset predicates read
+ * {@code (col, id) > (?, ?)}. Unlike the equivalent OR of comparisons, a row comparison is a single
+ * range condition on a {@code (col, id)} index, and the scan starts right at the cursor.
+ */
+public class KeysetFunctions implements FunctionContributor {
+
+    public static final String AFTER = "keyset_after";
+    public static final String BEFORE = "keyset_before";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(AFTER,
+                "((?1, ?2) > (?3, ?4))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(BEFORE,
+                "((?1, ?2) < (?3, ?4))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -0,0 +1,28 @@
+package com.novus.ecommerce.utils.specs;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text operators over {@code products.search_vector} as functions,
+ * so the text filter can be expressed as a {@link org.springframework.data.jpa.domain.Specification}
+ * and composed with every other product filter. The generated column is not mapped on the entity
+ * and the functions reference it unqualified; {@code products} is the only table with that column.
+ */
+public class ProductSearchFunctions implements FunctionContributor {
+
+    public static final String MATCH = "product_text_match";
+    public static final String RANK = "product_text_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                "(search_vector @@ to_tsquery('simple', ?1))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(RANK,
+                "ts_rank_cd(search_vector, to_tsquery('simple', ?1))",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
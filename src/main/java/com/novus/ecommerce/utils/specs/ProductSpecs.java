@@ -1,23 +1,108 @@
 package com.novus.ecommerce.utils.specs;
 
 import com.novus.ecommerce.entity.Product;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 public class ProductSpecs {
-    public static Specification<Product> containsName(String name) {
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("name").as(String.class)), "%" + name.toLowerCase() + "%");
-    }
-
     public static Specification<Product> priceWithinRange(BigDecimal min, BigDecimal max) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.between(root.get("price").as(BigDecimal.class), min, max);
     }
 
+    /**
+     * Full-text match over name and description, backed by the GIN index on {@code products.search_vector}.
+     *
+     * @param tsQuery a {@code to_tsquery('simple', ...)} expression such as {@code red:* & shoe:*};
+     *                an empty query matches nothing
+     */
+    public static Specification<Product> matchesText(String tsQuery) {
+        return (root, query, criteriaBuilder) -> tsQuery.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : criteriaBuilder.isTrue(
+                criteriaBuilder.function(ProductSearchFunctions.MATCH, Boolean.class, criteriaBuilder.literal(tsQuery)));
+    }
+
+    /**
+     * Orders by full-text relevance, best match first. Adds no predicate; only meant for listings
+     * without a client-supplied sort, which Spring Data would otherwise apply on top.
+     */
+    public static Specification<Product> rankedByText(String tsQuery) {
+        return (root, query, criteriaBuilder) -> {
+            if (tsQuery.isEmpty()) {
+                return null;
+            }
+            query.orderBy(
+                    criteriaBuilder.desc(criteriaBuilder.function(ProductSearchFunctions.RANK, Double.class,
+                            criteriaBuilder.literal(tsQuery))),
+                    criteriaBuilder.asc(root.get("id")));
+            return null;
+        };
+    }
+
     public static Specification<Product> byCategory(String category) {
         return ((root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(criteriaBuilder.lower(root.get("category").get("name").as(String.class)), category));
     }
-}
\ No newline at end of file
+
+    /**
+     * Keyset page after {@code keys} over the rows with a non-null sort value, ordered by
+     * {@code order} and then by id in the same direction, so the position is one row comparison
+     * {@code (col, id) > (?, ?)} on the {@code (col, id)} index. Rows with a null sort value come
+     * after all of these and are read separately with {@link #seekNullsAfter}. Empty {@code keys}
+     * start at the first row.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> seekAfter(Sort.Order order, Map<String, Object> keys) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Long> id = root.get("id");
+            if ("id".equals(order.getProperty())) {
+                query.orderBy(order.isAscending() ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+                Long lastId = (Long) keys.get("id");
+                if (lastId == null) {
+                    return null;
+                }
+                return order.isAscending() ? criteriaBuilder.gt(id, lastId) : criteriaBuilder.lt(id, lastId);
+            }
+
+            Expression<Comparable> value = root.get(order.getProperty());
+            query.orderBy(order.isAscending()
+                    ? List.of(criteriaBuilder.asc(value), criteriaBuilder.asc(id))
+                    : List.of(criteriaBuilder.desc(value), criteriaBuilder.desc(id)));
+            Predicate notNull = criteriaBuilder.isNotNull(value);
+            if (keys.isEmpty()) {
+                return notNull;
+            }
+
+            Object lastValue = keys.get(order.getProperty());
+            Object lastId = keys.get("id");
+            return criteriaBuilder.and(notNull, criteriaBuilder.isTrue(criteriaBuilder.function(
+                    order.isAscending() ? KeysetFunctions.AFTER : KeysetFunctions.BEFORE, Boolean.class,
+                    value, id, criteriaBuilder.literal(lastValue), criteriaBuilder.literal(lastId))));
+        };
+    }
+
+    /**
+     * Rows whose sort value is null, after {@code lastId} in the order's direction, or from the
+     * first of them when {@code lastId} is {@code null}. They are the tail of a
+     * {@link #seekAfter} listing, which has nulls last.
+     */
+    public static Specification<Product> seekNullsAfter(Sort.Order order, Long lastId) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Long> id = root.get("id");
+            query.orderBy(order.isAscending() ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+            Predicate isNull = criteriaBuilder.isNull(root.get(order.getProperty()));
+            if (lastId == null) {
+                return isNull;
+            }
+            return criteriaBuilder.and(isNull,
+                    order.isAscending() ? criteriaBuilder.gt(id, lastId) : criteriaBuilder.lt(id, lastId));
+        };
+    }
+}
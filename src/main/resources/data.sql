@@ -6,3 +6,32 @@
 INSERT INTO roles (role_name) VALUES ('ROLE_CUSTOMER') ON CONFLICT DO NOTHING;
 INSERT INTO roles (role_name) VALUES ('ROLE_ADMIN') ON CONFLICT DO NOTHING;
 
+-- =============================================================================
+-- Entity id sequences
+-- =============================================================================
+
+-- Hibernate hands out ids in blocks of 50 from these sequences. Schemas created while ids were
+-- IDENTITY columns already hold rows, so move a sequence forward only when it is behind its table.
+SELECT setval('users_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM users) m WHERE m.max_id > (SELECT last_value FROM users_seq);
+SELECT setval('addresses_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM addresses) m WHERE m.max_id > (SELECT last_value FROM addresses_seq);
+SELECT setval('cart_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM cart) m WHERE m.max_id > (SELECT last_value FROM cart_seq);
+SELECT setval('categories_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM categories) m WHERE m.max_id > (SELECT last_value FROM categories_seq);
+SELECT setval('products_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM products) m WHERE m.max_id > (SELECT last_value FROM products_seq);
+SELECT setval('orders_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM orders) m WHERE m.max_id > (SELECT last_value FROM orders_seq);
+SELECT setval('items_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM items) m WHERE m.max_id > (SELECT last_value FROM items_seq);
+SELECT setval('refresh_token_seq', m.max_id) FROM (SELECT max(id) AS max_id FROM refresh_token) m WHERE m.max_id > (SELECT last_value FROM refresh_token_seq);
+
+-- =============================================================================
+-- Product search indexes
+-- =============================================================================
+
+-- Weighted full-text vector over name (A) and description (B), kept in sync by PostgreSQL
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector);
+
+-- Name filters are full-text matches now, so the trigram index older builds created is dead weight
+DROP INDEX IF EXISTS idx_products_name_trgm;
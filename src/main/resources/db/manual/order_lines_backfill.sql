@@ -0,0 +1,22 @@
+-- =============================================================================
+-- Order line snapshots for orders placed before order_lines existed
+-- =============================================================================
+
+-- Run once, by hand, after every node runs a release that writes order_lines at checkout. Orders
+-- from older nodes only have items, and their lines are taken from the current catalog. Orders that
+-- already have lines are skipped, so running it again is harmless, but it reads the whole items
+-- table: schedule it outside peak hours.
+
+BEGIN;
+
+INSERT INTO order_lines (id, order_id, product_id, product_name, category, image_key, unit_price, quantity, price)
+SELECT nextval('order_lines_seq'), i.order_id, p.id, p.name, c.name, p.image_url,
+       round(i.price / greatest(i.quantity, 1), 2), i.quantity, i.price
+FROM items i
+JOIN products p ON p.id = i.product_id
+LEFT JOIN categories c ON c.id = p.category_id
+WHERE i.order_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM order_lines l WHERE l.order_id = i.order_id)
+ORDER BY i.order_id, i.id;
+
+COMMIT;
@@ -0,0 +1,24 @@
+-- =============================================================================
+-- Refresh tokens: drop the raw token column (contract step)
+-- =============================================================================
+
+-- Run once, by hand, after every node runs a release that stores refresh tokens as SHA-256
+-- digests. Until then nodes of the previous release still read and write refresh_token.token.
+-- SET NOT NULL scans the table under an ACCESS EXCLUSIVE lock; refresh_token holds one row per
+-- user, so schedule it outside peak login hours.
+
+BEGIN;
+
+-- The trigger keeps token_hash in step with token while both releases run; this catches anything
+-- written before SchemaMigrations installed it
+UPDATE refresh_token SET token_hash = sha256(convert_to(token, 'UTF8'))
+WHERE token IS NOT NULL AND token_hash IS DISTINCT FROM sha256(convert_to(token, 'UTF8'));
+
+DROP TRIGGER IF EXISTS refresh_token_sync_hash ON refresh_token;
+DROP FUNCTION IF EXISTS refresh_token_sync_hash();
+
+DELETE FROM refresh_token WHERE token_hash IS NULL;
+ALTER TABLE refresh_token DROP COLUMN token;
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+
+COMMIT;
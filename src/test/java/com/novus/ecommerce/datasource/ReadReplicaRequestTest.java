@@ -0,0 +1,208 @@
+package com.novus.ecommerce.datasource;
+
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.repository.CategoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.handler.WebRequestHandlerInterceptorAdapter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests shaped like the real controllers (a non-transactional lookup of the active user, then
+ * the service call) through Hibernate and the routing data source. Each transaction must pick its
+ * own server; the first query of the request must not decide for the rest.
+ * <p>
+ * Both "servers" are the same H2 database. The test only cares which one handed out the connection.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ReadReplicaRequestTest.RoutingConfig.class)
+class ReadReplicaRequestTest {
+
+    private static final ThreadLocal<String> SERVED_BY = new ThreadLocal<>();
+
+    @Autowired
+    private CatalogController controller;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Environment environment;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        StandaloneMockMvcBuilder builder = MockMvcBuilders.standaloneSetup(controller);
+        // Registered the way Spring Boot registers it, so the test follows spring.jpa.open-in-view
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+            interceptor.setEntityManagerFactory(entityManagerFactory);
+            builder.addInterceptors(new WebRequestHandlerInterceptorAdapter(interceptor));
+        }
+        mockMvc = builder.build();
+    }
+
+    @Test
+    void readOnlyTransactionAfterALookupReadsFromTheReplica() throws Exception {
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("replica"));
+    }
+
+    @Test
+    void writeAfterALookupGoesToThePrimary() throws Exception {
+        mockMvc.perform(post("/categories").param("name", "garden"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("primary"));
+    }
+
+    @Test
+    void readAndWriteInOneRequestEachGetTheirOwnServer() throws Exception {
+        mockMvc.perform(post("/categories/browse-then-add").param("name", "kitchen"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("replica,primary"));
+    }
+
+    @RestController
+    static class CatalogController {
+
+        private final CategoryRepository categoryRepository;
+        private final CatalogService catalogService;
+
+        CatalogController(CategoryRepository categoryRepository, CatalogService catalogService) {
+            this.categoryRepository = categoryRepository;
+            this.catalogService = catalogService;
+        }
+
+        @GetMapping("/categories")
+        public String list() {
+            lookUpActiveUser();
+            return catalogService.list();
+        }
+
+        @PostMapping("/categories")
+        public String add(@RequestParam String name) {
+            lookUpActiveUser();
+            return catalogService.add(name);
+        }
+
+        @PostMapping("/categories/browse-then-add")
+        public String browseThenAdd(@RequestParam String name) {
+            lookUpActiveUser();
+            return catalogService.list() + "," + catalogService.add(name);
+        }
+
+        // Stands in for UserService.getActiveUser(): a derived query outside any service transaction
+        private void lookUpActiveUser() {
+            categoryRepository.findByName("lookup");
+        }
+    }
+
+    static class CatalogService {
+
+        private final CategoryRepository categoryRepository;
+
+        CatalogService(CategoryRepository categoryRepository) {
+            this.categoryRepository = categoryRepository;
+        }
+
+        @Transactional(readOnly = true)
+        public String list() {
+            categoryRepository.findAll();
+            return SERVED_BY.get();
+        }
+
+        @Transactional
+        public String add(String name) {
+            categoryRepository.saveAndFlush(Category.builder().name(name).build());
+            return SERVED_BY.get();
+        }
+    }
+
+    /**
+     * Records on the calling thread which server the last physical connection came from.
+     */
+    static class Server extends DelegatingDataSource {
+
+        private final String name;
+
+        Server(String name, DataSource target) {
+            super(target);
+            this.name = name;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            SERVED_BY.set(name);
+            return super.getConnection();
+        }
+    }
+
+    @TestConfiguration
+    static class RoutingConfig {
+
+        private static DataSource h2() {
+            return new SimpleDriverDataSource(new org.h2.Driver(),
+                    "jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource() {
+            Server primary = new Server("primary", h2());
+            ReplicaDataSource.Replica replica = new ReplicaDataSource.Replica("replica", new Server("replica", h2()));
+            replica.markUp();
+
+            // Wired as ReplicaDataSourceConfig does
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+            dataSource.setReadOnlyDataSource(new ReplicaDataSource(primary, List.of(replica), Duration.ofSeconds(10),
+                    () -> false));
+            return dataSource;
+        }
+
+        @Bean
+        CatalogService catalogService(CategoryRepository categoryRepository) {
+            return new CatalogService(categoryRepository);
+        }
+
+        @Bean
+        CatalogController catalogController(CategoryRepository categoryRepository, CatalogService catalogService) {
+            return new CatalogController(categoryRepository, catalogService);
+        }
+    }
+}
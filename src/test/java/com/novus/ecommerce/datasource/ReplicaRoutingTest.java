@@ -0,0 +1,226 @@
+package com.novus.ecommerce.datasource;
+
+import com.novus.ecommerce.cache.CacheInvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing through {@link LazyConnectionDataSourceProxy} with a {@link ReplicaDataSource} as its
+ * read-only data source, against mocked servers that answer the replica health query.
+ */
+class ReplicaRoutingTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(10);
+
+    private final Server primary = Server.primary();
+    private final SharedBus bus = new SharedBus();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyConnectionsGoToReplicasRoundRobinAndWritesToThePrimary() throws SQLException {
+        Server first = Server.replica(0);
+        Server second = Server.replica(0);
+        Node node = new Node(List.of(first, second));
+
+        assertThat(node.target(true)).isSameAs(first.connection);
+        assertThat(node.target(true)).isSameAs(second.connection);
+        assertThat(node.target(true)).isSameAs(first.connection);
+        assertThat(node.target(false)).isSameAs(primary.connection);
+    }
+
+    @Test
+    void serverThatIsNotStreamingFromThePrimaryNeverJoinsTheRotation() throws SQLException {
+        // e.g. an empty stand-in database, which reports no lag but holds none of the schema
+        Node node = new Node(List.of(Server.standalone()));
+
+        assertThat(node.target(true)).isSameAs(primary.connection);
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() throws SQLException {
+        Server lagging = Server.replica(MAX_LAG.toSeconds() + 5);
+        Server current = Server.replica(0);
+        Node node = new Node(List.of(lagging, current));
+
+        assertThat(node.target(true)).isSameAs(current.connection);
+        assertThat(node.target(true)).isSameAs(current.connection);
+    }
+
+    @Test
+    void replicaThatFailsToConnectFallsBackToThePrimaryAndLeavesTheRotation() throws SQLException {
+        Server failing = Server.replica(0);
+        Node node = new Node(List.of(failing));
+        when(failing.dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThat(node.target(true)).isSameAs(primary.connection);
+        assertThat(node.target(true)).isSameAs(primary.connection);
+        // One health check and one routing attempt; the second read does not retry the replica
+        verify(failing.dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void recentWriterReadsFromThePrimaryOnEveryNode() throws SQLException {
+        Server replica = Server.replica(0);
+        Node checkoutNode = new Node(List.of(replica));
+        Node otherNode = new Node(List.of(replica));
+
+        checkoutNode.readYourWrites.markWrite("buyer@example.com");
+
+        authenticate("buyer@example.com");
+        assertThat(checkoutNode.target(true)).isSameAs(primary.connection);
+        assertThat(otherNode.target(true)).isSameAs(primary.connection);
+
+        authenticate("someone-else@example.com");
+        assertThat(otherNode.target(true)).isSameAs(replica.connection);
+    }
+
+    @Test
+    void stickinessHoldsOnAsyncThreadsThatCarryTheSecurityContext() throws Exception {
+        Node node = new Node(List.of(Server.replica(0)));
+        node.readYourWrites.markWrite("buyer@example.com");
+        authenticate("buyer@example.com");
+        SecurityContext context = SecurityContextHolder.getContext();
+
+        // What Spring Security does for async request processing such as a StreamingResponseBody
+        Connection target = CompletableFuture.supplyAsync(() -> {
+            SecurityContextHolder.setContext(context);
+            try {
+                return node.target(true);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }).get();
+
+        assertThat(target).isSameAs(primary.connection);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    /**
+     * One application node: its own read-your-writes state and routing data source, wired as
+     * ReplicaDataSourceConfig does.
+     */
+    private class Node {
+
+        private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(10), bus.join());
+        private final LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+
+        Node(List<Server> replicas) {
+            ReplicaDataSource replicaDataSource = new ReplicaDataSource(primary.dataSource,
+                    replicas.stream().map(server -> new ReplicaDataSource.Replica("replica", server.dataSource)).toList(),
+                    MAX_LAG, readYourWrites::isCurrentUserRecentWriter);
+            replicaDataSource.checkHealth();
+
+            dataSource.setTargetDataSource(primary.dataSource);
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+            dataSource.setDefaultAutoCommit(true);
+            dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            dataSource.afterPropertiesSet();
+        }
+
+        /**
+         * Marks the connection the way the transaction manager does for a read-only transaction,
+         * then resolves the physical connection behind it.
+         */
+        Connection target(boolean readOnly) throws SQLException {
+            Connection connection = dataSource.getConnection();
+            connection.setReadOnly(readOnly);
+            return ((ConnectionProxy) connection).getTargetConnection();
+        }
+    }
+
+    private record Server(DataSource dataSource, Connection connection) {
+
+        static Server primary() {
+            return answering(false, 0);
+        }
+
+        static Server standalone() {
+            return answering(false, 0);
+        }
+
+        static Server replica(double lagSeconds) {
+            return answering(true, lagSeconds);
+        }
+
+        private static Server answering(boolean inRecovery, double lagSeconds) {
+            try {
+                DataSource dataSource = mock(DataSource.class);
+                Connection connection = mock(Connection.class);
+                Statement statement = mock(Statement.class);
+                ResultSet health = mock(ResultSet.class);
+                when(dataSource.getConnection()).thenReturn(connection);
+                when(connection.createStatement()).thenReturn(statement);
+                when(statement.executeQuery(anyString())).thenReturn(health);
+                when(health.next()).thenReturn(true);
+                when(health.getBoolean(1)).thenReturn(inRecovery);
+                when(health.getDouble(2)).thenReturn(lagSeconds);
+                return new Server(dataSource, connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Delivers every publish to the other nodes' subscribers, like the Postgres bus does.
+     */
+    private static class SharedBus {
+
+        private final List<NodeBus> nodes = new CopyOnWriteArrayList<>();
+
+        CacheInvalidationBus join() {
+            NodeBus node = new NodeBus();
+            nodes.add(node);
+            return node;
+        }
+
+        private class NodeBus implements CacheInvalidationBus {
+
+            private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+            @Override
+            public void publish(String cacheName, String key) {
+                nodes.stream()
+                        .filter(node -> node != this)
+                        .forEach(node -> node.listeners.forEach(listener -> listener.onInvalidation(cacheName, key)));
+            }
+
+            @Override
+            public void subscribe(Listener listener) {
+                listeners.add(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.novus.ecommerce.mail;
+
+import com.novus.ecommerce.config.MailQueueProperties;
+import com.novus.ecommerce.entity.OutboundEmail;
+import com.novus.ecommerce.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the dispatcher against an in-process SMTP stand-in that records every session and
+ * rejects chosen recipients, so batching, retry and backoff are checked without a relay.
+ */
+class MailDispatcherTest {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SmtpStandIn smtp = new SmtpStandIn();
+    private final OutboundEmailRepository repository = mock(OutboundEmailRepository.class);
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // The poll interval keeps the dispatcher's own poller out of the way; tests call drain()
+        MailQueueProperties properties = new MailQueueProperties(Duration.ofHours(1), 2, 2, 1000.0, MAX_ATTEMPTS,
+                INITIAL_BACKOFF, MAX_BACKOFF, Duration.ofMinutes(5), Duration.ofDays(7));
+        dispatcher = new MailDispatcher(repository, smtp,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.destroy();
+    }
+
+    @Test
+    void claimsOneRoundPerWorkerAndSendsEachBatchOverOneSession() {
+        List<OutboundEmail> first = mails(1, 4, 0);
+        List<OutboundEmail> second = mails(5, 1, 0);
+        when(repository.lockDue(any(), anyInt())).thenReturn(first, second, List.of());
+
+        dispatcher.drain();
+
+        // 2 workers x 2 messages per session
+        verify(repository, times(3)).lockDue(any(), eq(4));
+        assertThat(smtp.sessions).hasSize(3);
+        assertThat(smtp.sessions.stream().map(List::size).sorted().toList()).containsExactly(1, 2, 2);
+        assertThat(sentIds()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        verify(repository, never()).markFailed(any(), any(), any(), any());
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithBackoffWhileTheRestOfTheSessionIsSent() {
+        List<OutboundEmail> claimed = mails(1, 2, 0);
+        smtp.reject(claimed.get(1).getRecipient());
+        when(repository.lockDue(any(), anyInt())).thenReturn(claimed, List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.drain();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(sentIds()).containsExactly(1L);
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).markFailed(eq(2L), eq(OutboundEmail.Status.PENDING), retryAt.capture(), anyString());
+        assertThat(retryAt.getValue()).isBetween(before.plus(INITIAL_BACKOFF), after.plus(INITIAL_BACKOFF));
+    }
+
+    @Test
+    void backoffDoublesWithEveryAttempt() {
+        // Claiming counts the attempt, so this mail goes out as its second attempt
+        OutboundEmail secondAttempt = mail(1, 1);
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(secondAttempt), List.of());
+        smtp.reject(secondAttempt.getRecipient());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.drain();
+        LocalDateTime after = LocalDateTime.now();
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).markFailed(eq(1L), eq(OutboundEmail.Status.PENDING), retryAt.capture(), anyString());
+        Duration doubled = INITIAL_BACKOFF.multipliedBy(2);
+        assertThat(retryAt.getValue()).isBetween(before.plus(doubled), after.plus(doubled));
+    }
+
+    @Test
+    void mailIsMarkedFailedOnceItRunsOutOfAttempts() {
+        OutboundEmail lastAttempt = mail(1, MAX_ATTEMPTS - 1);
+        smtp.reject(lastAttempt.getRecipient());
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(lastAttempt), List.of());
+
+        dispatcher.drain();
+
+        verify(repository).markFailed(eq(1L), eq(OutboundEmail.Status.FAILED), any(), anyString());
+        verify(repository, never()).markFailed(eq(1L), eq(OutboundEmail.Status.PENDING), any(), any());
+        assertThat(sentIds()).isEmpty();
+    }
+
+    @Test
+    void sessionThatFailsOutrightRetriesEveryMailInIt() {
+        List<OutboundEmail> claimed = mails(1, 2, 0);
+        smtp.failNextSession();
+        when(repository.lockDue(any(), anyInt())).thenReturn(claimed, List.of());
+
+        dispatcher.drain();
+
+        verify(repository).markFailed(eq(1L), eq(OutboundEmail.Status.PENDING), any(), anyString());
+        verify(repository).markFailed(eq(2L), eq(OutboundEmail.Status.PENDING), any(), anyString());
+        assertThat(sentIds()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> sentIds() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, atLeast(0)).markSent(ids.capture(), any());
+        return ids.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+
+    private static List<OutboundEmail> mails(long firstId, int count, int attempts) {
+        return LongStream.range(firstId, firstId + count).mapToObj(id -> mail(id, attempts)).toList();
+    }
+
+    private static OutboundEmail mail(long id, int attempts) {
+        return OutboundEmail.builder()
+                .id(id)
+                .recipient("user" + id + "@example.com")
+                .subject("Subject " + id)
+                .body("Body " + id)
+                .status(OutboundEmail.Status.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Stands in for the SMTP relay at the point where JavaMailSenderImpl would open a transport:
+     * one {@code doSend} call is one SMTP session.
+     */
+    private static class SmtpStandIn extends JavaMailSenderImpl {
+
+        private final List<List<MimeMessage>> sessions = new CopyOnWriteArrayList<>();
+        private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+        private volatile boolean failNextSession;
+
+        void reject(String recipient) {
+            rejected.add(recipient);
+        }
+
+        void failNextSession() {
+            failNextSession = true;
+        }
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            if (failNextSession) {
+                failNextSession = false;
+                throw new MailSendException("Connection refused");
+            }
+            sessions.add(List.of(mimeMessages));
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (MimeMessage message : mimeMessages) {
+                if (rejected.contains(recipientOf(message))) {
+                    failed.put(message, new MessagingException("550 Mailbox unavailable"));
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new MailSendException(failed);
+            }
+        }
+
+        private static String recipientOf(MimeMessage message) {
+            try {
+                return message.getAllRecipients()[0].toString();
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
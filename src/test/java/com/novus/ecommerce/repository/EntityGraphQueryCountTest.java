@@ -0,0 +1,112 @@
+package com.novus.ecommerce.repository;
+
+import com.novus.ecommerce.entity.Cart;
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.entity.ERole;
+import com.novus.ecommerce.entity.Item;
+import com.novus.ecommerce.entity.Order;
+import com.novus.ecommerce.entity.OrderLine;
+import com.novus.ecommerce.entity.Product;
+import com.novus.ecommerce.entity.Role;
+import com.novus.ecommerce.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cart and order reads must cost one statement however many items they hold, including the
+ * product and category data the DTO mappers read from every item.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EntityGraphQueryCountTest {
+
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Statistics statistics;
+    private User user;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        Role role = new Role();
+        role.setRoleName(ERole.ROLE_CUSTOMER);
+        entityManager.persist(role);
+
+        user = User.builder().username("buyer").email("buyer@example.com").password("secret").role(role).build();
+        entityManager.persist(user);
+
+        Cart cart = Cart.builder().user(user).build();
+        order = Order.builder().user(user).status("PENDING").totalPrice(BigDecimal.TEN).build();
+        entityManager.persist(order);
+
+        for (int i = 0; i < ITEMS; i++) {
+            // One category per product, so a lazy load per item would show up as extra statements
+            Category category = Category.builder().name("category-" + i).build();
+            entityManager.persist(category);
+            Product product = Product.builder()
+                    .name("product-" + i)
+                    .price(BigDecimal.ONE)
+                    .stock(10)
+                    .category(category)
+                    .build();
+            entityManager.persist(product);
+
+            cart.getItems().add(Item.builder().product(product).quantity(1).price(BigDecimal.ONE).cart(cart).build());
+            entityManager.persist(OrderLine.builder()
+                    .order(order)
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .category(category.getName())
+                    .unitPrice(BigDecimal.ONE)
+                    .quantity(1)
+                    .price(BigDecimal.ONE)
+                    .build());
+        }
+        entityManager.persist(cart);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void cartWithItemsProductsAndCategoriesIsOneStatement() {
+        Cart cart = cartRepository.findWithItemsByUserId(user.getId()).orElseThrow();
+
+        List<String> categories = cart.getItems().stream()
+                .map(item -> item.getProduct().getCategory().getName())
+                .toList();
+
+        assertThat(categories).hasSize(ITEMS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void orderWithLinesIsOneStatement() {
+        Order found = orderRepository.findWithLinesById(order.getId()).orElseThrow();
+
+        List<String> names = found.getLines().stream().map(OrderLine::getProductName).toList();
+
+        assertThat(names).hasSize(ITEMS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
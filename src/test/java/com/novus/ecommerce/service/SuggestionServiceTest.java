@@ -0,0 +1,127 @@
+package com.novus.ecommerce.service;
+
+import com.novus.ecommerce.cache.LocalCacheInvalidationBus;
+import com.novus.ecommerce.dto.response.SuggestionResponse;
+import com.novus.ecommerce.entity.Category;
+import com.novus.ecommerce.repository.CategoryRepository;
+import com.novus.ecommerce.repository.ProductRepository;
+import com.novus.ecommerce.utils.event.CategoryCreatedEvent;
+import com.novus.ecommerce.utils.event.ProductChangedEvent;
+import com.novus.ecommerce.utils.event.ProductsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how changes made since the last rebuild are merged over the ranked index.
+ */
+class SuggestionServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamSuggestionCandidates()).thenAnswer(invocation -> Stream.of(
+                new Candidate(1L, "Green Tea", "Drinks", 10L),
+                new Candidate(2L, "Black Tea", "Drinks", 50L),
+                new Candidate(3L, "Teapot", "Kitchen", 5L)));
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                Category.builder().name("Drinks").build(),
+                Category.builder().name("Kitchen").build()));
+    }
+
+    @Test
+    void renamedProductKeepsItsRankUnderTheNewName() {
+        SuggestionService service = service(100);
+
+        service.onProductChanged(new ProductChangedEvent(1L, "Jasmine Tea", false));
+
+        assertThat(service.suggest("tea", 10)).containsExactly(
+                product("Black Tea"), product("Jasmine Tea"), product("Teapot"));
+        assertThat(service.suggest("green", 10)).isEmpty();
+    }
+
+    @Test
+    void deletedProductIsNoLongerSuggested() {
+        SuggestionService service = service(100);
+
+        service.onProductChanged(new ProductChangedEvent(2L, "Black Tea", true));
+
+        assertThat(service.suggest("tea", 10)).containsExactly(product("Green Tea"), product("Teapot"));
+    }
+
+    @Test
+    void newProductsAndCategoriesAreSuggestedBeforeTheNextRebuild() {
+        SuggestionService service = service(100);
+
+        service.onProductsChanged(new ProductsChangedEvent(Map.of(4L, "Kettle", 5L, "Kitchen Scale")));
+        service.onCategoryCreated(new CategoryCreatedEvent("Kettles"));
+
+        assertThat(service.suggest("k", 10)).containsExactlyInAnyOrder(
+                category("Kitchen"), product("Kettle"), product("Kitchen Scale"), category("Kettles"));
+        assertThat(service.suggest("k", 1)).containsExactly(category("Kitchen"));
+    }
+
+    @Test
+    void rebuildsEarlyOnceTooManyChangesArePending() {
+        SuggestionService service = service(1);
+
+        service.onProductChanged(new ProductChangedEvent(4L, "Kettle", false));
+        service.resolveRemoteChanges();
+        verify(productRepository, times(1)).streamSuggestionCandidates();
+
+        service.onProductChanged(new ProductChangedEvent(5L, "Kitchen Scale", false));
+        service.resolveRemoteChanges();
+        verify(productRepository, times(2)).streamSuggestionCandidates();
+    }
+
+    private SuggestionService service(int maxPending) {
+        SuggestionService service = new SuggestionService(productRepository, categoryRepository,
+                new LocalCacheInvalidationBus(), mock(PlatformTransactionManager.class), maxPending);
+        service.rebuild();
+        return service;
+    }
+
+    private static SuggestionResponse product(String text) {
+        return new SuggestionResponse(text, "product");
+    }
+
+    private static SuggestionResponse category(String text) {
+        return new SuggestionResponse(text, "category");
+    }
+
+    private record Candidate(Long id, String name, String category, Long sold)
+            implements ProductRepository.SuggestionCandidate {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public Long getSold() {
+            return sold;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.novus.ecommerce.utils.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    @Test
+    void matchesEveryWordStartBestScoreFirst() {
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add("Red  Apple", "product", 5, 1L)
+                .add("apple pie", "product", 20, 2L)
+                .add("Pineapple", "product", 100, 3L)
+                .add("Apples", "category", 10, null)
+                .build();
+
+        assertThat(texts(index, "app", 10)).containsExactly("apple pie", "Apples", "Red  Apple");
+        assertThat(texts(index, "red a", 10)).containsExactly("Red  Apple");
+        assertThat(texts(index, "pie", 10)).containsExactly("apple pie");
+        assertThat(texts(index, "x", 10)).isEmpty();
+    }
+
+    @Test
+    void stopsOnceTheVisitorDeclines() {
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add("apple", "product", 1, 1L)
+                .add("apricot", "product", 3, 2L)
+                .add("avocado", "product", 2, 3L)
+                .build();
+
+        assertThat(texts(index, "a", 2)).containsExactly("apricot", "avocado");
+    }
+
+    @Test
+    void namesMatchingOnSeveralWordsAreHandedOutOnce() {
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add("berry berry blue", "product", 1, 1L)
+                .build();
+
+        assertThat(texts(index, "b", 10)).containsExactly("berry berry blue");
+    }
+
+    @Test
+    void skipsBlankNamesAndKnowsProductScores() {
+        SuggestionIndex index = SuggestionIndex.builder()
+                .add("  ", "product", 9, 1L)
+                .add("kiwi", "product", 7, 2L)
+                .add("Fruit", "category", 7, null)
+                .build();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.scoreOf(2L)).isEqualTo(7);
+        assertThat(index.scoreOf(1L)).isZero();
+        assertThat(index.scoreOf(42L)).isZero();
+    }
+
+    @Test
+    void agreesWithAScanOfEveryName() {
+        Random random = new Random(7);
+        String[] words = {"ab", "abc", "b", "ba", "bab", "c", "ca", "abca"};
+        SuggestionIndex.Builder builder = SuggestionIndex.builder();
+        List<String> names = new ArrayList<>();
+        List<Long> scores = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            long score = random.nextInt(50);
+            builder.add(name, "product", score, id);
+            names.add(name);
+            scores.add(score);
+        }
+        SuggestionIndex index = builder.build();
+
+        for (String prefix : List.of("a", "ab", "abc", "b", "ba", "c", "ca", "ab a", "z")) {
+            List<Long> expected = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (SuggestionIndex.matches(names.get(i), prefix)) {
+                    expected.add(scores.get(i));
+                }
+            }
+            expected.sort((a, b) -> Long.compare(b, a));
+
+            List<Long> actual = new ArrayList<>();
+            index.forEachMatch(prefix, match -> actual.add(match.score()));
+            assertThat(actual).as(prefix).isEqualTo(expected);
+        }
+    }
+
+    private static List<String> texts(SuggestionIndex index, String prefix, int limit) {
+        List<String> texts = new ArrayList<>();
+        index.forEachMatch(SuggestionIndex.normalize(prefix), match -> {
+            texts.add(match.text());
+            return texts.size() < limit;
+        });
+        return texts;
+    }
+}
@@ -0,0 +1,65 @@
+package com.novus.ecommerce.utils.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionOverlayTest {
+
+    private final SuggestionOverlay overlay = new SuggestionOverlay();
+
+    @Test
+    void findsEntriesByAnyWordStartOnce() {
+        overlay.putProduct(1L, "Green Tea green", "product", 4, 1);
+        overlay.putCategory("Teas", "category", 2);
+        overlay.putProduct(2L, "Coffee", "product", 1, 3);
+
+        assertThat(texts("te")).containsExactlyInAnyOrder("Green Tea green", "Teas");
+        assertThat(texts("gr")).containsExactly("Green Tea green");
+        assertThat(texts("tea g")).containsExactly("Green Tea green");
+        assertThat(texts("x")).isEmpty();
+    }
+
+    @Test
+    void renameReplacesTheOldWords() {
+        overlay.putProduct(1L, "Green Tea", "product", 4, 1);
+        overlay.putProduct(1L, "Black Coffee", "product", 4, 2);
+
+        assertThat(texts("gr")).isEmpty();
+        assertThat(texts("co")).containsExactly("Black Coffee");
+        assertThat(overlay.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deletedProductsOverrideTheIndexButNeverMatch() {
+        overlay.putProduct(1L, "Green Tea", "product", 4, 1);
+        overlay.putProduct(1L, null, "product", 4, 2);
+
+        assertThat(overlay.overrides(1L)).isTrue();
+        assertThat(overlay.overrides(2L)).isFalse();
+        assertThat(texts("gr")).isEmpty();
+    }
+
+    @Test
+    void removeOlderThanKeepsNewerChanges() {
+        overlay.putProduct(1L, "Green Tea", "product", 4, 1);
+        overlay.putProduct(2L, "Green Apple", "product", 4, 2);
+        overlay.putCategory("Greens", "category", 3);
+        overlay.putProduct(1L, "Green Tea Bags", "product", 4, 5);
+
+        overlay.removeOlderThan(4);
+
+        assertThat(overlay.size()).isEqualTo(1);
+        assertThat(overlay.overrides(2L)).isFalse();
+        assertThat(texts("green")).containsExactly("Green Tea Bags");
+    }
+
+    private List<String> texts(String prefix) {
+        List<String> texts = new ArrayList<>();
+        overlay.forEachMatch(SuggestionIndex.normalize(prefix), match -> texts.add(match.text()));
+        return texts;
+    }
+}